@@ -1,5 +1,6 @@
 module uk.ac.soton.comp1206 {
     requires java.scripting;
+    requires java.management;
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.media;
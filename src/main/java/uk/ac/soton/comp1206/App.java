@@ -6,6 +6,10 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import uk.ac.soton.comp1206.game.Multimedia;
+import uk.ac.soton.comp1206.game.ScoreHistory;
+import uk.ac.soton.comp1206.game.ScoreStore;
+import uk.ac.soton.comp1206.game.ScoreWriter;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 /**
@@ -23,6 +27,11 @@ public class App extends Application {
      */
     private final int height = 600;
 
+    /**
+     * Time the client was started, to measure how long it takes for the menu to be ready
+     */
+    private static final long startTime = System.nanoTime();
+
     private static App instance;
     private static final Logger logger = LogManager.getLogger(App.class);
     private Stage stage;
@@ -67,6 +76,10 @@ public class App extends Application {
      */
     public void shutdown() {
         logger.info("Shutting down");
+        Multimedia.shutdown();
+        ScoreWriter.getInstance().shutdown();
+        ScoreHistory.closeLocal();
+        ScoreStore.closeLocal();
         System.exit(0);
     }
 
@@ -78,4 +91,12 @@ public class App extends Application {
         return instance;
     }
 
+    /**
+     * Get the time the client was started
+     * @return start time in nanoseconds, from System.nanoTime
+     */
+    public static long getStartTime() {
+        return startTime;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package uk.ac.soton.comp1206.component;
+
+/**
+ * A single block on a board, as passed to the BlockClickedListener and BlockHoveredListener.
+ *
+ * Implemented by the GameBlock, which is its own Canvas, and by the CanvasBlock, which is a handle for a block drawn by
+ * a CanvasGameBoard, so the same listeners can be used with either board.
+ */
+public interface BoardBlock {
+
+    /**
+     * Get the column of this block
+     * @return column number
+     */
+    int getX();
+
+    /**
+     * Get the row of this block
+     * @return row number
+     */
+    int getY();
+
+    /**
+     * Get the current value held by this block, representing it's colour
+     * @return value
+     */
+    int getValue();
+
+    /**
+     * Sets the block as selected
+     */
+    void setSelected();
+
+    /**
+     * Sets the block as unselected
+     */
+    void setUnselected();
+
+    boolean isShowCircle();
+
+    void setShowCircle(boolean showCircle);
+
+    /**
+     * Animates the clearing of the block
+     */
+    void fadeOut();
+}
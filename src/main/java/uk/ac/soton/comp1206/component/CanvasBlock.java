@@ -0,0 +1,91 @@
+package uk.ac.soton.comp1206.component;
+
+/**
+ * A handle for a single block drawn by a CanvasGameBoard.
+ *
+ * The handle is not a Node and holds no state of its own: its value is read from the board's grid when asked for, and
+ * any drawing is passed on to the board.
+ */
+public class CanvasBlock implements BoardBlock, RepaintScheduler.Repaintable {
+
+    /**
+     * The board drawing this block
+     */
+    private final CanvasGameBoard board;
+
+    /**
+     * The column this block exists as in the grid
+     */
+    private final int x;
+
+    /**
+     * The row this block exists as in the grid
+     */
+    private final int y;
+
+    /**
+     * Create a handle for a block on a CanvasGameBoard
+     * @param board the board drawing this block
+     * @param x the column the block exists in
+     * @param y the row the block exists in
+     */
+    CanvasBlock(CanvasGameBoard board, int x, int y) {
+        this.board = board;
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public int getX() {
+        return x;
+    }
+
+    @Override
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public int getValue() {
+        return board.grid.get(x, y);
+    }
+
+    @Override
+    public void setSelected() {
+        board.setSelected(x, y, true);
+    }
+
+    @Override
+    public void setUnselected() {
+        board.setSelected(x, y, false);
+    }
+
+    @Override
+    public boolean isShowCircle() {
+        return board.isShowCircle(x, y);
+    }
+
+    @Override
+    public void setShowCircle(boolean showCircle) {
+        board.setShowCircle(x, y, showCircle);
+    }
+
+    @Override
+    public void fadeOut() {
+        board.fadeOut(x, y);
+    }
+
+    /**
+     * Paint this block on the board for the RepaintScheduler, unless it is in the middle of fading out
+     * @return true if the block was painted
+     */
+    @Override
+    public boolean paintIfIdle() {
+        return board.paintIfIdle(x, y);
+    }
+
+    @Override
+    public String toString() {
+        return "CanvasBlock(" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,388 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.event.EventHandler;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.event.BlockClickedListener;
+import uk.ac.soton.comp1206.event.BlockHoveredListener;
+import uk.ac.soton.comp1206.game.Grid;
+
+import java.util.Set;
+
+/**
+ * A CanvasGameBoard is an alternative to the GameBoard which draws the whole board on a single Canvas. It is used for
+ * the main board in the challenge and multiplayer scenes, while the small piece boards keep the GameBoard.
+ *
+ * Blocks are found from mouse positions by arithmetic rather than by a handler on each block, and only blocks which
+ * have changed are redrawn. Listeners are given CanvasBlock handles, which are not Nodes and read their value from the
+ * grid, so the same BlockClickedListener and BlockHoveredListener can be used with either board.
+ */
+public class CanvasGameBoard extends Canvas implements TileAtlas.ScaleListener {
+
+    private static final Logger logger = LogManager.getLogger(CanvasGameBoard.class);
+
+    /**
+     * Number of columns in the board
+     */
+    private final int cols;
+
+    /**
+     * Number of rows in the board
+     */
+    private final int rows;
+
+    /**
+     * The width and height of a single block
+     */
+    private final double blockWidth;
+    private final double blockHeight;
+
+    /**
+     * The grid this board represents
+     */
+    final Grid grid;
+
+    /**
+     * Block handles passed to listeners
+     */
+    private CanvasBlock[][] blocks;
+
+    //Per block drawing state, indexed by y * cols + x
+    private boolean[] selected;
+    private boolean[] circle;
+
+    /**
+     * Animator for every block fading out on this board
+     */
+    private FadeAnimator fadeAnimator;
+
+    //X and Y aim of selection
+    private int aimX = 0;
+    private int aimY = 0;
+
+    /**
+     * The block the mouse is currently over, or null
+     */
+    private CanvasBlock hovered;
+
+    /**
+     * The listener to call when a specific block is clicked
+     */
+    private BlockClickedListener blockClickedListener;
+
+    /**
+     * Listener to call when a block is hovered over
+     */
+    private BlockHoveredListener blockHoveredListener;
+
+    /**
+     * Create a new CanvasGameBoard, based off a given grid, with a visual width and height.
+     * @param grid linked grid
+     * @param width the visual width
+     * @param height the visual height
+     */
+    public CanvasGameBoard(Grid grid, double width, double height) {
+        super(width, height);
+        this.cols = grid.getCols();
+        this.rows = grid.getRows();
+        this.blockWidth = width / cols;
+        this.blockHeight = height / rows;
+        this.grid = grid;
+
+        build();
+    }
+
+    /**
+     * Create a new CanvasGameBoard with it's own internal grid, specifying the number of columns and rows, along with
+     * the visual width and height.
+     * @param cols number of columns for internal grid
+     * @param rows number of rows for internal grid
+     * @param width the visual width
+     * @param height the visual height
+     */
+    public CanvasGameBoard(int cols, int rows, double width, double height) {
+        this(new Grid(cols, rows), width, height);
+    }
+
+    /**
+     * Build the board by creating a block handle at every x and y and repainting blocks when the grid changes
+     */
+    private void build() {
+        logger.info("Building canvas grid: {} x {}", cols, rows);
+
+        blocks = new CanvasBlock[cols][rows];
+        selected = new boolean[cols * rows];
+        circle = new boolean[cols * rows];
+        fadeAnimator = new FadeAnimator(cols, rows, new FadeAnimator.FadePainter() {
+            @Override
+            public void paintFade(int x, int y, double alpha) {
+                paintBlockFade(x, y, alpha);
+            }
+            @Override
+            public void paintDone(int x, int y) {
+                paintBlock(x, y);
+            }
+        });
+
+        for(var y = 0; y < rows; y++) {
+            for(var x = 0; x < cols; x++) {
+                blocks[x][y] = new CanvasBlock(this, x, y);
+
+                final int blockX = x;
+                final int blockY = y;
+                grid.getGridProperty(x, y).addListener((observable, oldValue, newValue) -> repaint(blockX, blockY));
+            }
+        }
+
+        addEventHandler(MouseEvent.MOUSE_CLICKED, this::mouseClicked);
+        addEventHandler(MouseEvent.MOUSE_MOVED, e -> hover(blockAt(e)));
+        addEventHandler(MouseEvent.MOUSE_EXITED, e -> hover(null));
+
+        for(var y = 0; y < rows; y++) {
+            for(var x = 0; x < cols; x++) {
+                paintBlock(x, y);
+            }
+        }
+
+        TileAtlas.addScaleListener(this);
+    }
+
+    /**
+     * Repaint every block from the rebuilt tile atlas
+     */
+    @Override
+    public void scaleChanged() {
+        for(var y = 0; y < rows; y++) {
+            for(var x = 0; x < cols; x++) {
+                repaint(x, y);
+            }
+        }
+    }
+
+    /**
+     * Find the block under a mouse event
+     * @param event mouse event
+     * @return block under the mouse, or null if outside the board
+     */
+    private CanvasBlock blockAt(MouseEvent event) {
+        int x = (int) (event.getX() / blockWidth);
+        int y = (int) (event.getY() / blockHeight);
+        if(event.getX() < 0 || event.getY() < 0 || x >= cols || y >= rows) {
+            return null;
+        }
+        return blocks[x][y];
+    }
+
+    /**
+     * Triggered when the board is clicked. Call the attached listener with the block clicked.
+     * @param event mouse event
+     */
+    private void mouseClicked(MouseEvent event) {
+        CanvasBlock block = blockAt(event);
+        if(block == null) {
+            return;
+        }
+        logger.info("Block clicked: {}", block);
+
+        if(blockClickedListener != null && event.getButton() == MouseButton.PRIMARY) {
+            blockClickedListener.blockClicked(block);
+        }
+    }
+
+    /**
+     * Calls the block hovered listener when the mouse moves between blocks
+     * @param block block now under the mouse, or null
+     */
+    private void hover(CanvasBlock block) {
+        if(block == hovered) {
+            return;
+        }
+        CanvasBlock old = hovered;
+        hovered = block;
+        if(blockHoveredListener == null) {
+            return;
+        }
+        if(old != null) {
+            blockHoveredListener.blockUnHovered(old);
+        }
+        if(block != null) {
+            blockHoveredListener.blockHovered(block);
+        }
+    }
+
+    /**
+     * Mark a block as needing to be redrawn. The RepaintScheduler redraws it once on the next pulse.
+     * @param x column
+     * @param y row
+     */
+    void repaint(int x, int y) {
+        RepaintScheduler.schedule(blocks[x][y]);
+    }
+
+    /**
+     * Redraw a block for the RepaintScheduler, unless it is in the middle of fading out
+     * @param x column
+     * @param y row
+     * @return true if the block was drawn
+     */
+    boolean paintIfIdle(int x, int y) {
+        if(fadeAnimator.isFading(x, y)) {
+            return false;
+        }
+        paintBlock(x, y);
+        return true;
+    }
+
+    /**
+     * Draw a single block
+     * @param x column
+     * @param y row
+     */
+    private void paintBlock(int x, int y) {
+        var gc = getGraphicsContext2D();
+        double left = x * blockWidth;
+        double top = y * blockHeight;
+        int index = y * cols + x;
+        GameBlock.countPaint();
+
+        gc.clearRect(left, top, blockWidth, blockHeight);
+        TileAtlas.forSize(blockWidth, blockHeight).draw(gc, grid.get(x, y), TileAtlas.state(selected[index], circle[index]), left, top);
+    }
+
+    /**
+     * Draw the border of a block
+     * @param gc graphics context
+     * @param left left edge of the block
+     * @param top top edge of the block
+     */
+    private void strokeBlock(GraphicsContext gc, double left, double top) {
+        gc.setStroke(Color.WHITE);
+        gc.strokeRect(left, top, blockWidth, blockHeight);
+    }
+
+    /**
+     * Set whether a block is drawn as selected
+     * @param x column
+     * @param y row
+     * @param isSelected whether the block is selected
+     */
+    void setSelected(int x, int y, boolean isSelected) {
+        selected[y * cols + x] = isSelected;
+        repaint(x, y);
+    }
+
+    /**
+     * Whether a block has an aim circle drawn on it
+     * @param x column
+     * @param y row
+     * @return true if the circle is drawn
+     */
+    boolean isShowCircle(int x, int y) {
+        return circle[y * cols + x];
+    }
+
+    /**
+     * Set whether a block has an aim circle drawn on it
+     * @param x column
+     * @param y row
+     * @param showCircle whether to draw the circle
+     */
+    void setShowCircle(int x, int y, boolean showCircle) {
+        circle[y * cols + x] = showCircle;
+        repaint(x, y);
+    }
+
+    /**
+     * Start fading out a single block
+     * @param x column
+     * @param y row
+     */
+    void fadeOut(int x, int y) {
+        fadeAnimator.fadeOut(x, y);
+    }
+
+    /**
+     * Fades out a set of game blocks
+     * @param gameBlockCoordinates Set of coordinates for game blocks to fade out
+     */
+    public void fadeOut(Set<GameBlockCoordinate> gameBlockCoordinates) {
+        for(GameBlockCoordinate gameBlockCoordinate : gameBlockCoordinates) {
+            fadeOut(gameBlockCoordinate.getX(), gameBlockCoordinate.getY());
+        }
+    }
+
+    /**
+     * Draw a frame of the clearing animation for a block
+     * @param x column
+     * @param y row
+     * @param alpha opacity of the white flash
+     */
+    private void paintBlockFade(int x, int y, double alpha) {
+        var gc = getGraphicsContext2D();
+        double left = x * blockWidth;
+        double top = y * blockHeight;
+        gc.clearRect(left, top, blockWidth, blockHeight);
+        gc.setGlobalAlpha(alpha);
+        gc.setFill(Color.WHITE);
+        gc.fillRect(left, top, blockWidth, blockHeight);
+        gc.setGlobalAlpha(1);
+        strokeBlock(gc, left, top);
+    }
+
+    /**
+     * Get a specific block handle from the board, specified by it's row and column
+     * @param x column
+     * @param y row
+     * @return game block at the given column and row
+     */
+    public CanvasBlock getBlock(int x, int y) {
+        return blocks[x][y];
+    }
+
+    public void setBlock(int x, int y, int val) {
+        this.grid.set(x, y, val);
+    }
+
+    public int getAimX() {
+        return aimX;
+    }
+
+    public int getAimY() {
+        return aimY;
+    }
+
+    /**
+     * Sets the current selection aim at the given coordinates
+     * @param x x value of block
+     * @param y y value of block
+     */
+    public void setAim(int x, int y) {
+        if(x >= 0 && y >= 0 && x < cols && y < rows) {
+            setSelected(aimX, aimY, false);
+            aimX = x;
+            aimY = y;
+            setSelected(x, y, true);
+        }
+    }
+
+    /**
+     * Set the listener to handle an event when a block is clicked
+     * @param listener listener to add
+     */
+    public void setOnBlockClick(BlockClickedListener listener) {
+        this.blockClickedListener = listener;
+    }
+
+    public void setOnBlockHovered(BlockHoveredListener blockHoveredListener) {
+        this.blockHoveredListener = blockHoveredListener;
+    }
+
+    public void setOnRightClicked(EventHandler<? super MouseEvent> onRightClickedListener) {
+        this.setOnMouseClicked(onRightClickedListener);
+    }
+}
@@ -0,0 +1,61 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import uk.ac.soton.comp1206.game.ChatMessage;
+
+/**
+ * ChatBox extends the javafx ListView class
+ * A virtualised chat display, only creating cells for the visible messages, backed by a bounded chat history
+ */
+public class ChatBox extends ListView<ChatMessage> {
+
+    /**
+     * Messages held by this chat box
+     */
+    private final ChatHistory history;
+
+    /**
+     * Create a new chat box
+     * @param capacity maximum number of messages to keep
+     */
+    public ChatBox(int capacity) {
+        this.history = new ChatHistory(capacity);
+        this.setItems(this.history);
+        this.setFocusTraversable(false);
+        this.getStyleClass().add("messages");
+        this.setCellFactory(listView -> new ChatCell());
+    }
+
+    /**
+     * Add a message and scroll to it
+     * @param message message to add
+     */
+    public void addMessage(ChatMessage message) {
+        this.history.add(message);
+        this.scrollTo(this.history.size() - 1);
+    }
+
+    /**
+     * Remove all messages
+     */
+    public void clearMessages() {
+        this.history.clear();
+    }
+
+    /**
+     * List cell to render a single chat message
+     */
+    private class ChatCell extends ListCell<ChatMessage> {
+        ChatCell() {
+            this.setWrapText(true);
+            this.prefWidthProperty().bind(ChatBox.this.widthProperty().subtract(20));
+        }
+
+        @Override
+        protected void updateItem(ChatMessage message, boolean empty) {
+            super.updateItem(message, empty);
+            this.setText(empty || message == null ? null : message.toString());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.collections.ObservableListBase;
+import uk.ac.soton.comp1206.game.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * ChatHistory extends the javafx ObservableListBase class
+ * A bounded observable list of chat messages held in a ring buffer. Once full, adding a message drops the oldest.
+ */
+public class ChatHistory extends ObservableListBase<ChatMessage> {
+
+    /**
+     * Ring buffer of messages
+     */
+    private final ChatMessage[] buffer;
+
+    /**
+     * Index of the oldest message in the buffer
+     */
+    private int head = 0;
+
+    /**
+     * Number of messages held
+     */
+    private int size = 0;
+
+    /**
+     * Create a new chat history
+     * @param capacity maximum number of messages to hold
+     */
+    public ChatHistory(int capacity) {
+        this.buffer = new ChatMessage[capacity];
+    }
+
+    @Override
+    public ChatMessage get(int index) {
+        Objects.checkIndex(index, this.size);
+        return this.buffer[(this.head + index) % this.buffer.length];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a message to the end of the history, dropping the oldest message if full
+     * @param message message to add
+     * @return true
+     */
+    @Override
+    public boolean add(ChatMessage message) {
+        beginChange();
+        if(this.size == this.buffer.length) {
+            ChatMessage removed = this.buffer[this.head];
+            this.buffer[this.head] = null;
+            this.head = (this.head + 1) % this.buffer.length;
+            this.size--;
+            nextRemove(0, removed);
+        }
+        this.buffer[(this.head + this.size) % this.buffer.length] = message;
+        this.size++;
+        nextAdd(this.size - 1, this.size);
+        endChange();
+        return true;
+    }
+
+    /**
+     * Removes all messages
+     */
+    @Override
+    public void clear() {
+        if(this.size == 0) {
+            return;
+        }
+        beginChange();
+        var removed = new ArrayList<>(this);
+        Arrays.fill(this.buffer, null);
+        this.head = 0;
+        this.size = 0;
+        nextRemove(0, removed);
+        endChange();
+    }
+}
@@ -0,0 +1,147 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * FadeAnimator extends the javafx AnimationTimer class
+ * A single animation driver for every block fading out on a board.
+ *
+ * The progress of each block is held in a primitive array and all fading blocks are advanced together once per frame,
+ * by the time elapsed since the last frame so the fade takes the same time at any frame rate. The timer stops itself
+ * when no blocks are fading.
+ */
+public class FadeAnimator extends AnimationTimer {
+
+    /**
+     * Paints the frames of a fade for a board
+     */
+    public interface FadePainter {
+        /**
+         * Paint a block part way through fading out
+         * @param x column
+         * @param y row
+         * @param alpha opacity of the white flash
+         */
+        void paintFade(int x, int y, double alpha);
+
+        /**
+         * Paint a block once it has finished fading out
+         * @param x column
+         * @param y row
+         */
+        void paintDone(int x, int y);
+    }
+
+    /**
+     * Time taken for a block to fade out, in seconds
+     */
+    private static final double FADE_SECONDS = 0.2;
+
+    /**
+     * Opacity of the white flash when a fade starts
+     */
+    private static final double START_ALPHA = 0.5;
+
+    /**
+     * Longest time step taken in a single frame, so a stalled frame doesn't skip the fade
+     */
+    private static final double MAX_STEP_SECONDS = 0.05;
+
+    /**
+     * Number of columns on the board
+     */
+    private final int cols;
+
+    /**
+     * Fade remaining for each block, from 1 when started down to 0 when finished, indexed by y * cols + x
+     */
+    private final double[] remaining;
+
+    /**
+     * Painter for the board
+     */
+    private final FadePainter painter;
+
+    /**
+     * Number of blocks currently fading
+     */
+    private int active = 0;
+
+    /**
+     * Time of the last frame, or -1 if not running
+     */
+    private long lastFrame = -1;
+
+    /**
+     * Create a new fade animator for a board
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param painter painter to draw the fades
+     */
+    public FadeAnimator(int cols, int rows, FadePainter painter) {
+        this.cols = cols;
+        this.remaining = new double[cols * rows];
+        this.painter = painter;
+    }
+
+    /**
+     * Start fading out a block, restarting the fade if it is already fading
+     * @param x column
+     * @param y row
+     */
+    public void fadeOut(int x, int y) {
+        int index = y * cols + x;
+        if(remaining[index] <= 0) {
+            active++;
+        }
+        remaining[index] = 1;
+        painter.paintFade(x, y, START_ALPHA);
+        if(lastFrame < 0) {
+            start();
+        }
+    }
+
+    /**
+     * Whether a block is currently fading
+     * @param x column
+     * @param y row
+     * @return true if fading
+     */
+    public boolean isFading(int x, int y) {
+        return remaining[y * cols + x] > 0;
+    }
+
+    @Override
+    public void handle(long now) {
+        if(lastFrame < 0) {
+            lastFrame = now;
+            return;
+        }
+        double step = Math.min((now - lastFrame) / 1e9, MAX_STEP_SECONDS) / FADE_SECONDS;
+        lastFrame = now;
+
+        for(int i = 0; i < remaining.length; i++) {
+            if(remaining[i] <= 0) {
+                continue;
+            }
+            remaining[i] -= step;
+            if(remaining[i] > 0) {
+                painter.paintFade(i % cols, i / cols, START_ALPHA * remaining[i]);
+            } else {
+                remaining[i] = 0;
+                active--;
+                painter.paintDone(i % cols, i / cols);
+            }
+        }
+
+        if(active == 0) {
+            stop();
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        lastFrame = -1;
+    }
+}
@@ -1,12 +1,10 @@
 package uk.ac.soton.comp1206.component;
 
-import javafx.animation.AnimationTimer;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.effect.ColorAdjust;
 import javafx.scene.paint.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,7 +18,7 @@ import org.apache.logging.log4j.Logger;
  *
  * The GameBlock value should be bound to a corresponding block in the Grid model.
  */
-public class GameBlock extends Canvas {
+public class GameBlock extends Canvas implements BoardBlock, RepaintScheduler.Repaintable {
 
     private static final Logger logger = LogManager.getLogger(GameBlock.class);
 
@@ -29,6 +27,16 @@ public class GameBlock extends Canvas {
      */
     private boolean showCircle = false;
 
+    /**
+     * Whether this block is drawn as selected
+     */
+    private boolean selected = false;
+
+    /**
+     * Number of blocks painted, for the performance overlay
+     */
+    private static long paintCount = 0;
+
     /**
      * The set of colours for different pieces
      */
@@ -104,118 +112,83 @@ public class GameBlock extends Canvas {
      * @param newValue the new value
      */
     private void updateValue(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-        paint();
+        repaint();
     }
 
     /**
-     * Handle painting of the block canvas
+     * Schedule this block to be painted on the next pulse, so several changes in one move only paint it once
      */
-    public void paint() {
-        //If the block is empty, paint as empty
-        if(value.get() == 0) {
-            paintEmpty();
-        } else {
-            //If the block is not empty, paint with the colour represented by the value
-            paintColor(COLOURS[value.get()]);
+    public void repaint() {
+        RepaintScheduler.schedule(this);
+    }
+
+    /**
+     * Paint this block for the RepaintScheduler, unless it is in the middle of fading out
+     * @return true if the block was painted
+     */
+    public boolean paintIfIdle() {
+        if(gameBoard.isFading(x, y)) {
+            return false;
         }
+        paint();
+        return true;
     }
 
     /**
-     * Paint this canvas empty
+     * Handle painting of the block canvas, by copying the tile for its colour and state from the tile atlas
      */
-    private void paintEmpty() {
+    public void paint() {
+        paintCount++;
         var gc = getGraphicsContext2D();
 
         //Clear
         gc.clearRect(0,0,width,height);
 
-        //Fill
-        gc.setGlobalAlpha(0.2);
-        gc.setFill(Color.BLACK);
-        gc.fillRect(0,0, width, height);
-        gc.setGlobalAlpha(1);
-
-        //Border
-        gc.setStroke(Color.WHITE);
-        gc.strokeRect(0,0,width,height);
+        //Draw the tile for the current colour and state
+        TileAtlas.forSize(width, height).draw(gc, value.get(), TileAtlas.state(selected, showCircle), 0, 0);
     }
 
     /**
-     * Paint this canvas with the given colour
-     * @param colour the colour to paint
+     * Count a block painted by a board rather than by itself
      */
-    private void paintColor(Paint colour) {
-        var gc = getGraphicsContext2D();
-
-        //Clear
-        gc.clearRect(0,0,width,height);
-
-        //Colour fill
-        gc.setFill(colour);
-        gc.fillPolygon(new double[]{0,width,0}, new double[]{0,0,height}, 3);
+    static void countPaint() {
+        paintCount++;
+    }
 
-        ColorAdjust colorAdjust = new ColorAdjust();
-        colorAdjust.setBrightness(0.3);
+    /**
+     * Get the number of blocks painted since the game started
+     * @return number of block paints
+     */
+    public static long getPaintCount() {
+        return paintCount;
+    }
 
-        gc.setEffect(colorAdjust);
-        gc.fillPolygon(new double[]{0,width,width}, new double[]{height,height,0},3);
+    /**
+     * Animates the clearing of a block, using the board's fade animator
+     */
+    public void fadeOut() {
+        gameBoard.fadeOut(x, y);
+    }
 
-        gc.setEffect(null);
+    /**
+     * Paint a frame of the clearing animation
+     * @param alpha opacity of the white flash
+     */
+    void paintFade(double alpha) {
+        var gc = getGraphicsContext2D();
+        gc.clearRect(0,0,width,height);
 
-        //Paints a circle if required
-        if(this.showCircle) {
-            gc.setGlobalAlpha(0.5);
-            gc.setFill(Color.GREY);
-            gc.fillOval(width/4, height/4, width/2, height/2);
-            gc.setGlobalAlpha(1);
-        }
+        //Flash
+        gc.setGlobalAlpha(alpha);
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0,0,width,height);
+        gc.setGlobalAlpha(1);
 
         //Border
         gc.setStroke(Color.WHITE);
         gc.strokeRect(0,0,width,height);
     }
 
-    /**
-     * Animates the clearing of a block
-     */
-    public void fadeOut() {
-        AnimationTimer timer = new AnimationTimer() {
-            boolean animationStarted;
-            @Override
-            public void handle(long now) {
-                var gc = getGraphicsContext2D();
-                gc.clearRect(0,0,width,height);
-                if(!animationStarted) {
-                    //Initialising
-                    gc.setGlobalAlpha(0.5);
-                    gc.setFill(Color.WHITE);
-                    gc.fillRect(0,0,width,height);
-                    gc.setGlobalAlpha(1);
-                    gc.setStroke(Color.WHITE);
-                    gc.strokeRect(0,0,width,height);
-                    gc.setGlobalAlpha(0.5);
-                    animationStarted = true;
-                } else if(gc.getGlobalAlpha() > 0) {
-                    //If transparency hasn't reached 0
-                    gc.setGlobalAlpha(gc.getGlobalAlpha()-0.05);
-                    gc.setFill(Color.WHITE);
-                    gc.fillRect(0,0,width,height);
-                    double oldGlobalAlpha = gc.getGlobalAlpha();
-                    gc.setGlobalAlpha(1);
-                    gc.setStroke(Color.WHITE);
-                    gc.strokeRect(0,0,width,height);
-                    gc.setGlobalAlpha(oldGlobalAlpha);
-                } else {
-                    //Reset
-                    gc.setGlobalAlpha(1);
-                    paintEmpty();
-                    this.stop();
-                }
-            }
-        };
-        timer.start();
-    }
-
     /**
      * Get the column of this block
      * @return column number
@@ -252,21 +225,9 @@ public class GameBlock extends Canvas {
      * Sets the block as selected
      */
     public void setSelected() {
-        if(value.get() == 0) {
-            var gc = getGraphicsContext2D();
-            //Clear
-            gc.clearRect(0,0,width,height);
-
-            //Fill
-            gc.setFill(Color.GREY);
-            gc.fillRect(0,0, width, height);
-
-            //Border
-            gc.setStroke(Color.WHITE);
-            gc.strokeRect(0,0,width,height);
-        } else {
-            //Set's opacity to 0.6 if block is painted a colour
-            this.setOpacity(0.6);
+        if(!this.selected) {
+            this.selected = true;
+            repaint();
         }
     }
 
@@ -274,10 +235,9 @@ public class GameBlock extends Canvas {
      * Sets the block as unselected
      */
     public void setUnselected() {
-        if(value.get() == 0) {
-            this.paintEmpty();
-        } else {
-            this.setOpacity(1);
+        if(this.selected) {
+            this.selected = false;
+            repaint();
         }
     }
 
@@ -288,6 +248,6 @@ public class GameBlock extends Canvas {
     public void setShowCircle(boolean showCircle) {
         this.showCircle = showCircle;
         //Paint circle
-        paint();
+        repaint();
     }
 }
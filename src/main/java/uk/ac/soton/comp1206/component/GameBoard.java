@@ -22,7 +22,7 @@ import java.util.Set;
  * The GameBoard is only a visual representation and should not contain game logic or model logic in it, which should
  * take place in the Grid.
  */
-public class GameBoard extends GridPane {
+public class GameBoard extends GridPane implements TileAtlas.ScaleListener {
 
     private static final Logger logger = LogManager.getLogger(GameBoard.class);
 
@@ -56,6 +56,11 @@ public class GameBoard extends GridPane {
      */
     GameBlock[][] blocks;
 
+    /**
+     * Animator for every block fading out on this board
+     */
+    private FadeAnimator fadeAnimator;
+
     //X and Y aim of selection
     private int aimX = 0;
     private int aimY = 0;
@@ -87,8 +92,8 @@ public class GameBoard extends GridPane {
         if((!(x < 0) && !(y < 0)) && (!(x > this.cols-1) && !(y > this.rows-1))) {
             this.aimX = x;
             this.aimY = y;
-            this.blocks[x][y].setSelected();
             this.blocks[oldX][oldY].setUnselected();
+            this.blocks[x][y].setSelected();
         }
     }
 
@@ -170,11 +175,36 @@ public class GameBoard extends GridPane {
 
         blocks = new GameBlock[cols][rows];
 
+        fadeAnimator = new FadeAnimator(cols, rows, new FadeAnimator.FadePainter() {
+            @Override
+            public void paintFade(int x, int y, double alpha) {
+                blocks[x][y].paintFade(alpha);
+            }
+            @Override
+            public void paintDone(int x, int y) {
+                blocks[x][y].paint();
+            }
+        });
+
         for(var y = 0; y < rows; y++) {
             for (var x = 0; x < cols; x++) {
                 createBlock(x,y);
             }
         }
+
+        TileAtlas.addScaleListener(this);
+    }
+
+    /**
+     * Repaint every block from the rebuilt tile atlas
+     */
+    @Override
+    public void scaleChanged() {
+        for(var y = 0; y < rows; y++) {
+            for(var x = 0; x < cols; x++) {
+                blocks[x][y].repaint();
+            }
+        }
     }
 
     /**
@@ -260,8 +290,27 @@ public class GameBoard extends GridPane {
      */
     public void fadeOut(Set<GameBlockCoordinate> gameBlockCoordinates) {
         for(GameBlockCoordinate gameBlockCoordinate : gameBlockCoordinates) {
-            this.blocks[gameBlockCoordinate.getX()][gameBlockCoordinate.getY()].fadeOut();
+            this.fadeOut(gameBlockCoordinate.getX(), gameBlockCoordinate.getY());
         }
     }
 
+    /**
+     * Fades out a single game block
+     * @param x column
+     * @param y row
+     */
+    void fadeOut(int x, int y) {
+        this.fadeAnimator.fadeOut(x, y);
+    }
+
+    /**
+     * Whether a block is in the middle of fading out
+     * @param x column
+     * @param y row
+     * @return true if fading
+     */
+    boolean isFading(int x, int y) {
+        return this.fadeAnimator.isFading(x, y);
+    }
+
 }
@@ -9,6 +9,7 @@ import javafx.scene.text.Text;
 import javafx.util.Pair;
 
 import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -48,20 +49,17 @@ public class Leaderboard extends ScoresList {
      * @param scores the new scores to render
      */
     protected void renderLeaderboardScores(ObservableList<Pair<String, Pair<Integer,Boolean>>> scores) {
-        //Heading
-        this.getChildren().clear();
-        Text heading = new Text(this.heading);
-        heading.getStyleClass().add("heading");
-        this.getChildren().add(heading);
-        //Render every score
+        //Only players who have just joined the leaderboard are revealed, score changes update the row in place
+        List<String> players = new ArrayList<>(scores.size());
+        List<String> labels = new ArrayList<>(scores.size());
         for(Pair<String,Pair<Integer,Boolean>> score : scores) {
-            Text text = new Text(score.getKey() + ": " + score.getValue().getKey());
-            text.getStyleClass().add("scoreitem");
+            players.add(score.getKey());
+            labels.add(score.getKey() + ": " + score.getValue().getKey());
+        }
+        List<Text> rows = this.renderRows(players, labels);
+        for(int i = 0; i < scores.size(); i++) {
             //Cross out if dead
-            text.setStrikethrough(score.getValue().getValue());
-            this.getChildren().add(text);
-            //Animate reveal
-            this.reveal(text);
+            rows.get(i).setStrikethrough(scores.get(i).getValue().getValue());
         }
     }
 
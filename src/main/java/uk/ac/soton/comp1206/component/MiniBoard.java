@@ -0,0 +1,162 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * MiniBoard extends the javafx VBox class
+ * A lightweight, read-only view of another player's board and their name.
+ *
+ * The board is held as a compact byte array and drawn onto a single canvas from the tile atlas, only redrawing blocks
+ * which changed. There are no mouse handlers or property bindings. Mini boards are pooled, so a view released when a
+ * player dies or a game ends is reused for the next opponent.
+ */
+public class MiniBoard extends VBox implements TileAtlas.ScaleListener {
+
+    /**
+     * Released mini boards waiting to be reused
+     */
+    private static final ArrayDeque<MiniBoard> pool = new ArrayDeque<>();
+
+    /**
+     * Most mini boards kept in the pool
+     */
+    private static final int MAX_POOLED = 32;
+
+    private final int cols;
+    private final int rows;
+    private final double blockWidth;
+    private final double blockHeight;
+
+    /**
+     * Canvas the board is drawn on
+     */
+    private final Canvas canvas;
+
+    /**
+     * Player name
+     */
+    private final Text name = new Text();
+
+    /**
+     * Block values, column by column (index x * rows + y)
+     */
+    private final byte[] cells;
+
+    /**
+     * Get a mini board from the pool, or create one if none of the right size are free
+     * @param player player the board belongs to
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param width visual width
+     * @param height visual height
+     * @return an empty mini board showing the player's name
+     */
+    public static MiniBoard acquire(String player, int cols, int rows, double width, double height) {
+        MiniBoard board = null;
+        for(MiniBoard pooled : pool) {
+            if(pooled.cols == cols && pooled.rows == rows && pooled.canvas.getWidth() == width && pooled.canvas.getHeight() == height) {
+                board = pooled;
+                break;
+            }
+        }
+        if(board == null) {
+            board = new MiniBoard(cols, rows, width, height);
+        } else {
+            pool.remove(board);
+        }
+        board.name.setText(player);
+        return board;
+    }
+
+    /**
+     * Create a new, empty mini board
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param width visual width
+     * @param height visual height
+     */
+    private MiniBoard(int cols, int rows, double width, double height) {
+        this.cols = cols;
+        this.rows = rows;
+        this.blockWidth = width / cols;
+        this.blockHeight = height / rows;
+        this.cells = new byte[cols * rows];
+        this.canvas = new Canvas(width, height);
+
+        this.name.getStyleClass().add("channelItem");
+        this.setSpacing(3);
+        this.setMouseTransparent(true);
+        this.getChildren().addAll(canvas, name);
+
+        paintAll();
+        TileAtlas.addScaleListener(this);
+    }
+
+    /**
+     * Repaint every block from the rebuilt tile atlas
+     */
+    @Override
+    public void scaleChanged() {
+        paintAll();
+    }
+
+    /**
+     * Update the board, redrawing only blocks which have changed
+     * @param values new block values, column by column (index x * rows + y)
+     */
+    public void update(byte[] values) {
+        int length = Math.min(values.length, cells.length);
+        for(int i = 0; i < length; i++) {
+            if(values[i] != cells[i]) {
+                cells[i] = values[i];
+                paintBlock(i / rows, i % rows);
+            }
+        }
+    }
+
+    /**
+     * Remove this board from its parent, clear it and return it to the pool
+     */
+    public void release() {
+        if(getParent() instanceof VBox parent) {
+            parent.getChildren().remove(this);
+        }
+        Arrays.fill(cells, (byte) 0);
+        paintAll();
+        name.setText("");
+        if(pool.size() < MAX_POOLED) {
+            pool.add(this);
+        }
+    }
+
+    /**
+     * Draw every block
+     */
+    private void paintAll() {
+        for(int x = 0; x < cols; x++) {
+            for(int y = 0; y < rows; y++) {
+                paintBlock(x, y);
+            }
+        }
+    }
+
+    /**
+     * Draw a single block from the tile atlas
+     * @param x column
+     * @param y row
+     */
+    private void paintBlock(int x, int y) {
+        int value = cells[x * rows + y];
+        if(value < 0 || value >= GameBlock.COLOURS.length) {
+            value = 0;
+        }
+        var gc = canvas.getGraphicsContext2D();
+        gc.clearRect(x * blockWidth, y * blockHeight, blockWidth, blockHeight);
+        TileAtlas.forSize(blockWidth, blockHeight).draw(gc, value, TileAtlas.PLAIN, x * blockWidth, y * blockHeight);
+    }
+}
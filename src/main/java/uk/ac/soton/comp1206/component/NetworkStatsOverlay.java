@@ -0,0 +1,87 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import javafx.util.Duration;
+import uk.ac.soton.comp1206.network.Communicator;
+import uk.ac.soton.comp1206.network.CommunicatorStats;
+
+/**
+ * NetworkStatsOverlay extends the javafx VBox class
+ * A debug overlay showing the message counts and latencies recorded by the Communicator
+ */
+public class NetworkStatsOverlay extends VBox {
+
+    /**
+     * Communicator to show statistics for, may be null if not connected
+     */
+    private final Communicator communicator;
+
+    /**
+     * Timeline to refresh the statistics every second
+     */
+    private final Timeline refresh;
+
+    //Statistics text
+    private final Text traffic = new Text();
+    private final Text requests = new Text();
+    private final Text latency = new Text();
+
+    /**
+     * Create a new network statistics overlay
+     * @param communicator communicator to show statistics for
+     */
+    public NetworkStatsOverlay(Communicator communicator) {
+        this.communicator = communicator;
+
+        this.getStyleClass().add("debug-overlay");
+        this.setMouseTransparent(true);
+        this.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        this.getChildren().addAll(new Text("Network"), traffic, requests, latency);
+
+        this.refresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> update()));
+        this.refresh.setCycleCount(Animation.INDEFINITE);
+        update();
+    }
+
+    /**
+     * Start refreshing the statistics
+     */
+    public void start() {
+        update();
+        this.refresh.play();
+    }
+
+    /**
+     * Stop refreshing the statistics
+     */
+    public void stop() {
+        this.refresh.stop();
+    }
+
+    /**
+     * Update the statistics text
+     */
+    private void update() {
+        if(this.communicator == null) {
+            traffic.setText("Not connected");
+            requests.setText("");
+            latency.setText("");
+            return;
+        }
+        CommunicatorStats stats = this.communicator.getStats();
+        traffic.setText("Sent " + stats.getMessagesSent() + " (" + stats.getBytesSent() + "B) Received "
+                + stats.getMessagesReceived() + " (" + stats.getBytesReceived() + "B)");
+        StringBuilder str = new StringBuilder("In flight " + stats.getRequestsInFlight());
+        stats.getAverageRequestMillis().forEach((type, average) ->
+                str.append(String.format("  %s %.0fms", type, average)));
+        requests.setText(str.toString());
+        latency.setText(String.format("Ping %.0fms (avg %.0fms)  Confirm %.0fms  FX lag %.1fms",
+                stats.getPingRoundTripMillis(), stats.getAveragePingRoundTripMillis(),
+                stats.getAverageActionConfirmMillis(), stats.getFxDispatchLagMillis()));
+    }
+}
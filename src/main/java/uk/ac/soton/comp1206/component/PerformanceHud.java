@@ -0,0 +1,295 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * PerformanceHud extends the javafx VBox class
+ * A developer overlay showing frame rate, frame and pulse times, Platform.runLater lag, the number of nodes in the
+ * scene and the number of GameBlock paints per frame.
+ *
+ * Frames are timed with an AnimationTimer. The pulse time is measured from the animation stage of the pulse to the end
+ * of layout, using a post layout pulse listener on the scene, so it covers animation, CSS and layout but not rendering.
+ * Once a second the figures are shown and recorded as a row against the current scene name, and the most recent rows
+ * can be exported to a CSV file.
+ */
+public class PerformanceHud extends VBox {
+
+    private static final Logger logger = LogManager.getLogger(PerformanceHud.class);
+
+    /**
+     * Number of frames kept for the percentiles
+     */
+    private static final int SAMPLES = 240;
+
+    /**
+     * Most rows kept for the CSV, an hour at one row a second. The oldest rows are dropped first.
+     */
+    private static final int MAX_ROWS = 3600;
+
+    /**
+     * Time between refreshes of the figures, in nanoseconds
+     */
+    private static final long REFRESH_NANOS = 1_000_000_000L;
+
+    //Ring buffers of recent frames, in nanoseconds
+    private final long[] frameTimes = new long[SAMPLES];
+    private final long[] pulseTimes = new long[SAMPLES];
+    private final long[] framePaints = new long[SAMPLES];
+    private int sample = 0;
+    private int samples = 0;
+
+    /**
+     * Timer called once per frame
+     */
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            frame(now);
+        }
+    };
+
+    /**
+     * Listener called at the end of layout in every pulse
+     */
+    private final Runnable pulseListener = this::pulseLaidOut;
+
+    /**
+     * Scene currently being measured
+     */
+    private Scene scene;
+
+    /**
+     * Name of the scene being measured, used in the CSV
+     */
+    private String sceneName = "";
+
+    //Frame timing state
+    private long lastFrame = -1;
+    private long pulseStart = -1;
+    private long lastPaints = 0;
+    private long framesSinceRefresh = 0;
+    private long lastRefresh = -1;
+
+    /**
+     * Most recent Platform.runLater lag, in nanoseconds
+     */
+    private long fxLag = 0;
+
+    /**
+     * Recorded rows for the CSV
+     */
+    private final ArrayDeque<String> rows = new ArrayDeque<>();
+
+    //Statistics text
+    private final Text frames = new Text();
+    private final Text pulses = new Text();
+    private final Text scenegraph = new Text();
+
+    /**
+     * Create a new performance overlay
+     */
+    public PerformanceHud() {
+        this.getStyleClass().add("debug-overlay");
+        this.setMouseTransparent(true);
+        this.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        this.getChildren().addAll(new Text("Performance"), frames, pulses, scenegraph);
+    }
+
+    /**
+     * Measure a scene, replacing any scene measured before
+     * @param scene scene to measure
+     * @param name name of the scene for the CSV
+     */
+    public void attach(Scene scene, String name) {
+        if(this.scene != null) {
+            this.scene.removePostLayoutPulseListener(pulseListener);
+        }
+        this.scene = scene;
+        this.sceneName = name;
+        scene.addPostLayoutPulseListener(pulseListener);
+    }
+
+    /**
+     * Start measuring
+     */
+    public void start() {
+        lastFrame = -1;
+        lastRefresh = -1;
+        lastPaints = GameBlock.getPaintCount();
+        timer.start();
+    }
+
+    /**
+     * Stop measuring
+     */
+    public void stop() {
+        timer.stop();
+        if(this.scene != null) {
+            this.scene.removePostLayoutPulseListener(pulseListener);
+            this.scene = null;
+        }
+    }
+
+    /**
+     * Record a frame
+     * @param now time of the frame
+     */
+    private void frame(long now) {
+        long paints = GameBlock.getPaintCount();
+        if(lastFrame >= 0) {
+            frameTimes[sample] = now - lastFrame;
+            framePaints[sample] = paints - lastPaints;
+            pulseStart = System.nanoTime();
+        } else {
+            pulseStart = -1;
+        }
+        lastFrame = now;
+        lastPaints = paints;
+        framesSinceRefresh++;
+
+        if(lastRefresh < 0) {
+            lastRefresh = now;
+        } else if(now - lastRefresh >= REFRESH_NANOS) {
+            refresh(now);
+        }
+    }
+
+    /**
+     * Record the time taken by the pulse up to the end of layout
+     */
+    private void pulseLaidOut() {
+        if(pulseStart < 0) {
+            return;
+        }
+        pulseTimes[sample] = System.nanoTime() - pulseStart;
+        pulseStart = -1;
+        sample = (sample + 1) % SAMPLES;
+        samples = Math.min(samples + 1, SAMPLES);
+    }
+
+    /**
+     * Update the figures, record a row and probe the Platform.runLater lag
+     * @param now time of the frame
+     */
+    private void refresh(long now) {
+        double fps = framesSinceRefresh * 1e9 / (now - lastRefresh);
+        framesSinceRefresh = 0;
+        lastRefresh = now;
+
+        long[] frame = sorted(frameTimes);
+        long[] pulse = sorted(pulseTimes);
+        long[] paints = sorted(framePaints);
+        int nodes = scene == null ? 0 : countNodes(scene.getRoot());
+        double lag = fxLag / 1e6;
+
+        frames.setText(String.format("%.0f fps  frame p50 %.1f p95 %.1f p99 %.1f ms", fps,
+                millis(frame, 50), millis(frame, 95), millis(frame, 99)));
+        pulses.setText(String.format("pulse p50 %.1f p95 %.1f p99 %.1f ms  runLater lag %.1f ms",
+                millis(pulse, 50), millis(pulse, 95), millis(pulse, 99), lag));
+        scenegraph.setText(String.format("%d nodes  paints/frame avg %.1f max %d", nodes, average(paints),
+                paints.length == 0 ? 0 : paints[paints.length - 1]));
+
+        if(rows.size() == MAX_ROWS) {
+            rows.removeFirst();
+        }
+        rows.addLast(String.format("%d,%s,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%d,%.2f,%d", System.currentTimeMillis(),
+                sceneName, fps, millis(frame, 50), millis(frame, 95), millis(frame, 99), millis(pulse, 50),
+                millis(pulse, 95), millis(pulse, 99), lag, nodes, average(paints),
+                paints.length == 0 ? 0 : paints[paints.length - 1]));
+
+        long posted = System.nanoTime();
+        Platform.runLater(() -> fxLag = System.nanoTime() - posted);
+    }
+
+    /**
+     * Write the recorded rows to a CSV file
+     * @param file file to write to
+     */
+    public void exportCsv(File file) {
+        try (FileWriter fw = new FileWriter(file, false);
+        BufferedWriter bw = new BufferedWriter(fw);
+        PrintWriter pw = new PrintWriter(bw)) {
+            pw.println("time,scene,fps,frame_p50_ms,frame_p95_ms,frame_p99_ms,pulse_p50_ms,pulse_p95_ms,pulse_p99_ms,"
+                    + "runlater_lag_ms,nodes,paints_per_frame_avg,paints_per_frame_max");
+            for(String row : rows) {
+                pw.println(row);
+            }
+            logger.info("Exported {} performance rows to {}", rows.size(), file.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Unable to export performance rows: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Copy the recorded samples out of a ring buffer and sort them
+     * @param buffer ring buffer
+     * @return sorted samples
+     */
+    private long[] sorted(long[] buffer) {
+        long[] copy = Arrays.copyOf(buffer, samples);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Get a percentile of sorted samples in milliseconds
+     * @param sorted sorted samples in nanoseconds
+     * @param percentile percentile to get
+     * @return percentile in milliseconds
+     */
+    private static double millis(long[] sorted, int percentile) {
+        if(sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Get the average of some samples
+     * @param values samples
+     * @return average
+     */
+    private static double average(long[] values) {
+        if(values.length == 0) {
+            return 0;
+        }
+        long total = 0;
+        for(long value : values) {
+            total += value;
+        }
+        return (double) total / values.length;
+    }
+
+    /**
+     * Count the nodes in a scene graph
+     * @param node root node
+     * @return number of nodes including the root
+     */
+    private static int countNodes(Node node) {
+        int count = 1;
+        if(node instanceof Parent parent) {
+            for(Node child : parent.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+}
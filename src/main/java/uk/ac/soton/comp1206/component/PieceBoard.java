@@ -22,8 +22,22 @@ public class PieceBoard extends GameBoard {
         super(3, 3, width, height);
     }
 
+    /**
+     * Displays a piece on the board. Blocks which are unchanged from the previous piece are not repainted.
+     * @param pieceToDisplay piece to display, or null to clear the board while waiting for a piece
+     */
     public void setPieceToDisplay(GamePiece pieceToDisplay) {
-        this.grid.playPieceBoard(pieceToDisplay, 1, 1);
+        this.grid.beginUpdate();
+        if(pieceToDisplay == null) {
+            for(int x = 0; x < this.grid.getCols(); x++) {
+                for(int y = 0; y < this.grid.getRows(); y++) {
+                    this.grid.set(x, y, 0);
+                }
+            }
+        } else {
+            this.grid.playPieceBoard(pieceToDisplay, 1, 1);
+        }
+        this.grid.endUpdate();
     }
 
     public boolean isCentreCircle() {
@@ -0,0 +1,93 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Collects blocks which need repainting and paints each of them once on the next pulse. It is used by the GameBlocks
+ * of a GameBoard and by the blocks of a CanvasGameBoard.
+ *
+ * A block marked dirty several times before the pulse, for example by a grid change and a selection change in the
+ * same move, is only painted once. The number of repaints made and avoided is counted.
+ */
+public class RepaintScheduler {
+
+    /**
+     * A block which can be painted by the scheduler
+     */
+    interface Repaintable {
+        /**
+         * Paint the block, unless it is in the middle of fading out
+         * @return true if the block was painted
+         */
+        boolean paintIfIdle();
+    }
+
+    /**
+     * Blocks waiting to be painted
+     */
+    private static final LinkedHashSet<Repaintable> dirty = new LinkedHashSet<>();
+
+    /**
+     * Timer to paint the dirty blocks on the next pulse, stopped when nothing is dirty
+     */
+    private static final AnimationTimer flushTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    /**
+     * Number of blocks painted by the scheduler
+     */
+    private static long repaints = 0;
+
+    /**
+     * Number of repaints avoided by blocks being marked dirty more than once per pulse
+     */
+    private static long avoidedRepaints = 0;
+
+    /**
+     * Mark a block as needing to be painted on the next pulse
+     * @param block block to paint
+     */
+    static void schedule(Repaintable block) {
+        if(dirty.isEmpty()) {
+            flushTimer.start();
+        }
+        if(!dirty.add(block)) {
+            avoidedRepaints++;
+        }
+    }
+
+    /**
+     * Paint every dirty block
+     */
+    private static void flush() {
+        flushTimer.stop();
+        for(Repaintable block : dirty) {
+            if(block.paintIfIdle()) {
+                repaints++;
+            }
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Get the number of blocks painted by the scheduler
+     * @return number of repaints
+     */
+    public static long getRepaints() {
+        return repaints;
+    }
+
+    /**
+     * Get the number of repaints avoided by coalescing
+     * @return number of repaints avoided
+     */
+    public static long getAvoidedRepaints() {
+        return avoidedRepaints;
+    }
+}
@@ -13,6 +13,9 @@ import javafx.util.Duration;
 import javafx.util.Pair;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * ScoresList extends the VBox javafx class
@@ -28,6 +31,16 @@ public class ScoresList extends VBox {
     private boolean leaderboard;
     protected String heading;
 
+    /**
+     * Rows currently shown below the heading, reused between renders
+     */
+    private final List<Text> rows = new ArrayList<>();
+
+    /**
+     * Keys of the rows shown by the last render, to tell which rows are new
+     */
+    private Set<String> shown = new HashSet<>();
+
     /**
      * Create a new ScoresList object
      * @param online is the scores list online
@@ -68,31 +81,68 @@ public class ScoresList extends VBox {
      * @param scores new scores to render
      */
     protected void renderScores(ObservableList<Pair<String,Integer>> scores) {
-        //Heading
-        this.getChildren().clear();
-        Text heading = new Text(this.heading);
-        heading.getStyleClass().add("heading");
-        this.getChildren().add(heading);
+        List<String> labels = new ArrayList<>(scores.size());
         for(Pair<String,Integer> score : scores) {
-            Text text = new Text(score.getKey() + " " + score.getValue());
-            text.getStyleClass().add("scoreitem");
-            this.getChildren().add(text);
-            //Reveal each score
-            this.reveal(text);
+            labels.add(score.getKey() + " " + score.getValue());
+        }
+        //A score is new if that name and score were not shown before
+        this.renderRows(labels, labels);
+    }
+
+    /**
+     * Update the rows to show new labels, reusing the existing text nodes and only revealing rows which are new
+     * @param keys key for each row, used to tell whether it was shown by the last render
+     * @param labels text for each row
+     * @return the rows shown, in order
+     */
+    protected List<Text> renderRows(List<String> keys, List<String> labels) {
+        //Heading
+        if(this.getChildren().isEmpty()) {
+            Text heading = new Text(this.heading);
+            heading.getStyleClass().add("heading");
+            this.getChildren().add(heading);
+        }
+        for(int i = 0; i < labels.size(); i++) {
+            Text text;
+            if(i < this.rows.size()) {
+                text = this.rows.get(i);
+                if(!text.getText().equals(labels.get(i))) {
+                    text.setText(labels.get(i));
+                }
+            } else {
+                text = new Text(labels.get(i));
+                text.getStyleClass().add("scoreitem");
+                this.rows.add(text);
+                this.getChildren().add(text);
+            }
+            //Reveal each new score
+            if(!this.shown.contains(keys.get(i))) {
+                this.reveal(text);
+            }
         }
+        //Remove rows no longer needed
+        while(this.rows.size() > labels.size()) {
+            this.getChildren().remove(this.rows.remove(this.rows.size() - 1));
+        }
+        this.shown = new HashSet<>(keys);
+        return this.rows;
     }
 
     /**
-     * Animate a text component to reveal slowly
+     * Animate a text component to reveal slowly, reusing its fade if it has been revealed before
      * @param text text component to reveal
      */
     protected void reveal(Text text) {
-        FadeTransition fadeTransition = new FadeTransition();
-        fadeTransition.setDuration(Duration.millis(2000));
-        fadeTransition.setFromValue(0);
-        fadeTransition.setToValue(1);
-        fadeTransition.setNode(text);
-        fadeTransition.play();
+        FadeTransition fadeTransition = (FadeTransition) text.getProperties().get(FadeTransition.class);
+        if(fadeTransition == null) {
+            fadeTransition = new FadeTransition();
+            fadeTransition.setDuration(Duration.millis(2000));
+            fadeTransition.setFromValue(0);
+            fadeTransition.setToValue(1);
+            fadeTransition.setNode(text);
+            text.getProperties().put(FadeTransition.class, fadeTransition);
+        }
+        fadeTransition.playFromStart();
     }
 
     /**
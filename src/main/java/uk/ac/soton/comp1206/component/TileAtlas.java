@@ -0,0 +1,226 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.ColorAdjust;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A TileAtlas holds every block colour pre-rendered into a single image, for one block size.
+ *
+ * Each of the GameBlock COLOURS is drawn once in each state (plain, selected, with a circle, and selected with a
+ * circle). Colour 0 holds the empty block. Blocks are then painted by copying their tile from the atlas, rather than
+ * drawing polygons and effects every time.
+ *
+ * Atlases are cached by block size and rendered at the current GamePane scale. They are rebuilt only when that scale
+ * changes, and boards registered as scale listeners are then told to repaint their tiles.
+ */
+public class TileAtlas {
+
+    private static final Logger logger = LogManager.getLogger(TileAtlas.class);
+
+    /**
+     * Tile states, one row of the atlas each
+     */
+    public static final int PLAIN = 0;
+    public static final int SELECTED = 1;
+    public static final int CIRCLE = 2;
+    public static final int SELECTED_CIRCLE = 3;
+    private static final int STATES = 4;
+
+    /**
+     * Listener told when the tiles are rendered at a new scale
+     */
+    public interface ScaleListener {
+        /**
+         * Repaint every tile, as the atlases have been rebuilt at a new scale
+         */
+        void scaleChanged();
+    }
+
+    /**
+     * Boards to repaint when the scale changes, held weakly so discarded boards can still be collected
+     */
+    private static final Set<ScaleListener> listeners = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Atlases already built, keyed by block size
+     */
+    private static final HashMap<String, TileAtlas> atlases = new HashMap<>();
+
+    /**
+     * Scale the atlases are rendered at
+     */
+    private static double scale = 1;
+
+    /**
+     * Rendered tiles
+     */
+    private final WritableImage image;
+
+    /**
+     * Size of a block on screen
+     */
+    private final double width;
+    private final double height;
+
+    /**
+     * Size of a tile in the atlas image
+     */
+    private final double tileWidth;
+    private final double tileHeight;
+
+    /**
+     * Get the atlas for a block size, building it if needed
+     * @param width block width
+     * @param height block height
+     * @return atlas for the block size
+     */
+    public static TileAtlas forSize(double width, double height) {
+        return atlases.computeIfAbsent(width + "x" + height, key -> new TileAtlas(width, height));
+    }
+
+    /**
+     * Register a board to repaint its tiles when the scale changes
+     * @param listener board to repaint
+     */
+    public static void addScaleListener(ScaleListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Set the scale the atlases are rendered at. Existing atlases are thrown away if the scale has changed, and the
+     * registered boards are repainted after the current layout pass.
+     * @param newScale new scale
+     */
+    public static void setScale(double newScale) {
+        if(newScale <= 0 || newScale == scale) {
+            return;
+        }
+        scale = newScale;
+        atlases.clear();
+        Platform.runLater(() -> {
+            for(ScaleListener listener : new ArrayList<>(listeners)) {
+                listener.scaleChanged();
+            }
+        });
+    }
+
+    /**
+     * Render a new atlas for the given block size
+     * @param width block width
+     * @param height block height
+     */
+    private TileAtlas(double width, double height) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = Math.ceil(width * scale);
+        this.tileHeight = Math.ceil(height * scale);
+        logger.info("Building tile atlas for {} x {} at scale {}", width, height, scale);
+
+        int colours = GameBlock.COLOURS.length;
+        var canvas = new Canvas(tileWidth * colours, tileHeight * STATES);
+        var gc = canvas.getGraphicsContext2D();
+        for(int state = 0; state < STATES; state++) {
+            for(int value = 0; value < colours; value++) {
+                gc.save();
+                gc.translate(value * tileWidth, state * tileHeight);
+                gc.beginPath();
+                gc.rect(0, 0, tileWidth, tileHeight);
+                gc.clip();
+                gc.scale(tileWidth / width, tileHeight / height);
+                paintTile(gc, value, state == SELECTED || state == SELECTED_CIRCLE, state == CIRCLE || state == SELECTED_CIRCLE);
+                gc.restore();
+            }
+        }
+
+        var params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        this.image = canvas.snapshot(params, new WritableImage((int) canvas.getWidth(), (int) canvas.getHeight()));
+    }
+
+    /**
+     * Draw a single tile at the origin
+     * @param gc graphics context
+     * @param value colour value, 0 for empty
+     * @param selected whether the block is selected
+     * @param circle whether to draw the aim circle
+     */
+    private void paintTile(GraphicsContext gc, int value, boolean selected, boolean circle) {
+        if(value == 0) {
+            //Empty, or grey when selected
+            if(selected) {
+                gc.setFill(Color.GREY);
+            } else {
+                gc.setGlobalAlpha(0.2);
+                gc.setFill(Color.BLACK);
+            }
+            gc.fillRect(0, 0, width, height);
+            gc.setGlobalAlpha(1);
+        } else {
+            //Selected coloured blocks are drawn see-through
+            double alpha = selected ? 0.6 : 1;
+            gc.setGlobalAlpha(alpha);
+
+            //Colour fill
+            gc.setFill(GameBlock.COLOURS[value]);
+            gc.fillPolygon(new double[]{0, width, 0}, new double[]{0, 0, height}, 3);
+
+            ColorAdjust colorAdjust = new ColorAdjust();
+            colorAdjust.setBrightness(0.3);
+
+            gc.setEffect(colorAdjust);
+            gc.fillPolygon(new double[]{0, width, width}, new double[]{height, height, 0}, 3);
+            gc.setEffect(null);
+
+            //Aim circle
+            if(circle) {
+                gc.setGlobalAlpha(0.5 * alpha);
+                gc.setFill(Color.GREY);
+                gc.fillOval(width / 4, height / 4, width / 2, height / 2);
+            }
+            gc.setGlobalAlpha(alpha);
+        }
+
+        //Border
+        gc.setStroke(Color.WHITE);
+        gc.strokeRect(0, 0, width, height);
+        gc.setGlobalAlpha(1);
+    }
+
+    /**
+     * Copy a tile onto a canvas
+     * @param gc graphics context to draw to
+     * @param value colour value, 0 for empty
+     * @param state tile state
+     * @param x left edge to draw at
+     * @param y top edge to draw at
+     */
+    public void draw(GraphicsContext gc, int value, int state, double x, double y) {
+        gc.drawImage(image, value * tileWidth, state * tileHeight, tileWidth, tileHeight, x, y, width, height);
+    }
+
+    /**
+     * Get the tile state for a block
+     * @param selected whether the block is selected
+     * @param circle whether the block shows the aim circle
+     * @return tile state
+     */
+    public static int state(boolean selected, boolean circle) {
+        if(selected) {
+            return circle ? SELECTED_CIRCLE : SELECTED;
+        }
+        return circle ? CIRCLE : PLAIN;
+    }
+}
@@ -1,6 +1,8 @@
 package uk.ac.soton.comp1206.component;
 
 import javafx.animation.*;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
@@ -10,10 +12,25 @@ import org.apache.logging.log4j.Logger;
 /**
  * TimerBar class extends the javafx Rectangle class
  * Provides an easy-to-use component for the life loss timer
+ *
+ * A single Timeline is reused for every countdown and restarted with a new rate, rather than building a new one each
+ * game loop. The bar collapses by scaling rather than changing its width, and its colour is interpolated from green
+ * through yellow to red as time runs out.
  */
 public class TimerBar extends Rectangle {
     private final Logger logger = LogManager.getLogger(this.getClass());
 
+    /**
+     * Length of the reusable timeline, which is played at a rate to match the time given
+     */
+    private static final double BASE_MILLIS = 1000;
+
+    /**
+     * Fraction of the time elapsed when the bar is fully yellow, and then fully red
+     */
+    private static final double YELLOW_AT = 0.4;
+    private static final double RED_AT = 0.8;
+
     /**
      * Deafult width of bar
      */
@@ -24,6 +41,18 @@ public class TimerBar extends Rectangle {
      */
     private long time;
 
+    /**
+     * Fraction of the time remaining, from 1 down to 0
+     */
+    private final DoubleProperty remaining = new SimpleDoubleProperty(1);
+
+    /**
+     * The single timeline animating the remaining time
+     */
+    private final Timeline timeline = new Timeline(
+            new KeyFrame(Duration.ZERO, new KeyValue(remaining, 1)),
+            new KeyFrame(Duration.millis(BASE_MILLIS), new KeyValue(remaining, 0, Interpolator.LINEAR)));
+
     /**
      * Create a new TimerBar
      * @param time starting time taken to collapse bar
@@ -38,6 +67,8 @@ public class TimerBar extends Rectangle {
         this.time = time;
 
         this.setFill(Color.GREEN);
+        this.timeline.setCycleCount(1);
+        this.remaining.addListener((observable, oldValue, newValue) -> update(newValue.doubleValue()));
     }
 
     public void setTime(long time) {
@@ -45,21 +76,44 @@ public class TimerBar extends Rectangle {
     }
 
     /**
-     * Public method to animate the bar collapsing
+     * Public method to animate the bar collapsing, restarting the countdown if it is already running
      */
     public void animate() {
-        //Reset bar
-        this.setFill(Color.GREEN);
-        this.setWidth(this.defaultWidth);
-
-        //Timeline to animate and interpolate bar collapsing and change colour
-        Timeline timeline = new Timeline();
-        KeyValue keyValue = new KeyValue(this.widthProperty(), 0, Interpolator.LINEAR);
-        KeyFrame keyFrame = new KeyFrame(Duration.millis(this.time), keyValue);
-        KeyFrame yellow = new KeyFrame(Duration.millis((this.time/10)*4), new KeyValue(this.fillProperty(), Color.YELLOW));
-        KeyFrame red = new KeyFrame(Duration.millis((this.time/10)*8), new KeyValue(this.fillProperty(), Color.RED));
-        timeline.setCycleCount(1);
-        timeline.getKeyFrames().addAll(keyFrame, yellow, red);
-        timeline.play();
+        this.timeline.stop();
+        this.timeline.setRate(this.time > 0 ? BASE_MILLIS / this.time : 1);
+        this.remaining.set(1);
+        update(1);
+        this.timeline.playFromStart();
+    }
+
+    /**
+     * Stop the countdown
+     */
+    public void stop() {
+        this.timeline.stop();
+    }
+
+    /**
+     * Whether the countdown is currently running
+     * @return true if running
+     */
+    public boolean isRunning() {
+        return this.timeline.getStatus() == Animation.Status.RUNNING;
+    }
+
+    /**
+     * Collapse the bar towards its left edge and set its colour for the time remaining
+     * @param fraction fraction of the time remaining
+     */
+    private void update(double fraction) {
+        this.setScaleX(fraction);
+        this.setTranslateX(-this.defaultWidth * (1 - fraction) / 2);
+
+        double elapsed = 1 - fraction;
+        if(elapsed < YELLOW_AT) {
+            this.setFill(Color.GREEN.interpolate(Color.YELLOW, elapsed / YELLOW_AT));
+        } else {
+            this.setFill(Color.YELLOW.interpolate(Color.RED, Math.min(1, (elapsed - YELLOW_AT) / (RED_AT - YELLOW_AT))));
+        }
     }
 }
@@ -1,6 +1,6 @@
 package uk.ac.soton.comp1206.event;
 
-import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.component.BoardBlock;
 
 /**
  * Listener interface for when a block is hovered over
@@ -10,11 +10,11 @@ public interface BlockHoveredListener {
      * Handle when a block is hovered over
      * @param gameBlock block hovered over
      */
-    void blockHovered(GameBlock gameBlock);
+    void blockHovered(BoardBlock gameBlock);
 
     /**
      * Handle when a cursor has left the block
      * @param gameBlock block deselected
      */
-    void blockUnHovered(GameBlock gameBlock);
+    void blockUnHovered(BoardBlock gameBlock);
 }
@@ -0,0 +1,134 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Sequence numbered log of actions sent to the server which have been predicted locally but not yet confirmed.
+ *
+ * Each action records the score and lives the client predicted after sending it. When authoritative state arrives
+ * from the server, it is matched against the log so confirmed actions can be dropped and stale server state ignored.
+ */
+public class ActionLog {
+
+    /**
+     * Maximum number of unconfirmed actions to hold before the oldest is dropped
+     */
+    private static final int MAX_PENDING = 64;
+
+    /**
+     * A single predicted action
+     */
+    public static class Action {
+        private final long sequence;
+        private final int score;
+        private final int lives;
+        private final long sentAt;
+
+        private Action(long sequence, int score, int lives) {
+            this.sequence = sequence;
+            this.score = score;
+            this.lives = lives;
+            this.sentAt = System.currentTimeMillis();
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getLives() {
+            return lives;
+        }
+
+        public long getSentAt() {
+            return sentAt;
+        }
+    }
+
+    /**
+     * Actions waiting for confirmation, oldest first
+     */
+    private final ArrayDeque<Action> pending = new ArrayDeque<>();
+
+    /**
+     * Sequence number given to the next action
+     */
+    private long nextSequence = 1;
+
+    /**
+     * Time between the last confirmed action being sent and confirmed
+     */
+    private long lastRoundTripMillis = 0;
+
+    /**
+     * Records a new predicted action
+     * @param score predicted score after the action
+     * @param lives predicted lives after the action
+     * @return the sequence number of the action
+     */
+    public long record(int score, int lives) {
+        if(this.pending.size() >= MAX_PENDING) {
+            this.pending.removeFirst();
+        }
+        Action action = new Action(this.nextSequence++, score, lives);
+        this.pending.addLast(action);
+        return action.getSequence();
+    }
+
+    /**
+     * Reconciles the log against authoritative state from the server. If the state matches a predicted action, that
+     * action and every action before it are confirmed and removed.
+     * @param score score reported by the server
+     * @param lives lives reported by the server
+     * @return true if the state matched a predicted action
+     */
+    public boolean reconcile(int score, int lives) {
+        Action match = null;
+        for(Action action : this.pending) {
+            if(action.getScore() == score && action.getLives() == lives) {
+                match = action;
+            }
+        }
+        if(match == null) {
+            return false;
+        }
+        for(Iterator<Action> iterator = this.pending.iterator(); iterator.hasNext(); ) {
+            Action action = iterator.next();
+            if(action.getSequence() <= match.getSequence()) {
+                iterator.remove();
+            }
+        }
+        this.lastRoundTripMillis = System.currentTimeMillis() - match.getSentAt();
+        return true;
+    }
+
+    /**
+     * Drops actions which have waited longer than the given time for confirmation
+     * @param maxAgeMillis maximum age of an unconfirmed action
+     * @return true if any actions were dropped
+     */
+    public boolean expire(long maxAgeMillis) {
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        return this.pending.removeIf(action -> action.getSentAt() < cutoff);
+    }
+
+    /**
+     * Whether there are actions waiting on the server
+     * @return true if actions are pending
+     */
+    public boolean hasPending() {
+        return !this.pending.isEmpty();
+    }
+
+    /**
+     * Gets the time between the last confirmed action being sent and confirmed
+     * @return milliseconds
+     */
+    public long getLastRoundTripMillis() {
+        return lastRoundTripMillis;
+    }
+}
@@ -0,0 +1,107 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AudioDispatcher class to play sound effects on a dedicated audio thread
+ *
+ * Sounds are posted to a lock-free queue and the audio thread, which parks while the queue is empty, passes them on
+ * to the sink. Posting a sound never blocks, so input handling and rendering on the FX thread are never held up by
+ * audio.
+ */
+public class AudioDispatcher {
+
+    private static final Logger logger = LogManager.getLogger(AudioDispatcher.class);
+
+    /**
+     * System property which turns audio off when set to "off", for headless use
+     */
+    public static final String AUDIO_PROPERTY = "tetrecs.audio";
+
+    /**
+     * A sound waiting to be played
+     * @param file location of sound
+     * @param triggeredAt time the sound was posted
+     */
+    private record Request(String file, long triggeredAt) {}
+
+    /**
+     * Sounds waiting to be played
+     */
+    private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Where sounds are played
+     */
+    private final AudioSink sink;
+
+    /**
+     * The audio thread
+     */
+    private final Thread thread;
+
+    /**
+     * Whether the audio thread should keep running
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Create a new dispatcher and start its audio thread
+     * @param sink where sounds are played
+     */
+    public AudioDispatcher(AudioSink sink) {
+        this.sink = sink;
+        this.thread = new Thread(this::run, "Audio");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Whether audio has been turned off with the tetrecs.audio system property
+     * @return true if audio should be played
+     */
+    public static boolean isAudioEnabled() {
+        return !"off".equalsIgnoreCase(System.getProperty(AUDIO_PROPERTY));
+    }
+
+    /**
+     * Post a sound to be played on the audio thread
+     * @param file location of sound
+     */
+    public void post(String file) {
+        queue.offer(new Request(file, System.nanoTime()));
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Stop the audio thread
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Play each sound posted, parking while there are none
+     */
+    private void run() {
+        logger.info("Audio thread started");
+        while(running) {
+            Request request;
+            while((request = queue.poll()) != null) {
+                try {
+                    sink.play(request.file(), request.triggeredAt());
+                } catch (Exception e) {
+                    logger.error("Unable to play {}: {}", request.file(), e.getMessage());
+                }
+            }
+            LockSupport.park(this);
+        }
+        sink.stopAll();
+        logger.info("Audio thread stopped");
+    }
+}
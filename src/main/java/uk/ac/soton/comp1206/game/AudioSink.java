@@ -0,0 +1,25 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * Somewhere sound effects can be played, such as the SoundEngine or nothing at all when running headless
+ */
+public interface AudioSink {
+
+    /**
+     * A sink which plays nothing
+     */
+    AudioSink SILENT = (file, triggeredAt) -> {};
+
+    /**
+     * Play a sound effect
+     * @param file location of sound
+     * @param triggeredAt time the sound was triggered, from System.nanoTime
+     */
+    void play(String file, long triggeredAt);
+
+    /**
+     * Stop every sound effect
+     */
+    default void stopAll() {
+    }
+}
@@ -0,0 +1,55 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A single chat message, sent by a player or shown as information from the game
+ */
+public class ChatMessage {
+    /**
+     * Player who sent the message, or null for information messages
+     */
+    private final String player;
+    /**
+     * Message text
+     */
+    private final String message;
+
+    /**
+     * Create a new chat message
+     * @param player player who sent the message, or null for information messages
+     * @param message message text
+     */
+    public ChatMessage(String player, String message) {
+        this.player = player;
+        this.message = message;
+    }
+
+    /**
+     * Parses the body of a MSG command, in the form player:message. Only the first colon separates the player, so
+     * messages may contain colons.
+     * @param body body of the MSG command
+     * @return parsed chat message
+     */
+    public static ChatMessage parse(String body) {
+        int separator = body.indexOf(':');
+        if(separator < 0) {
+            return new ChatMessage(null, body);
+        }
+        return new ChatMessage(body.substring(0, separator), body.substring(separator + 1));
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        if(player == null) {
+            return message;
+        }
+        return "[" + player + "] " + message;
+    }
+}
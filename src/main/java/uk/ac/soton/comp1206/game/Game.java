@@ -5,7 +5,7 @@ import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.component.BoardBlock;
 import uk.ac.soton.comp1206.component.GameBlockCoordinate;
 import uk.ac.soton.comp1206.event.GameLoopListener;
 import uk.ac.soton.comp1206.event.LineClearedListener;
@@ -56,7 +56,21 @@ public class Game {
     /**
      * Game loop timer
      */
-    protected Timer gameLoopTimer;
+    protected volatile Timer gameLoopTimer;
+
+    /**
+     * Seed for the pieces spawned in this game
+     */
+    protected final long seed;
+
+    /**
+     * Random number generator for the pieces, created once from the seed
+     */
+    protected final Random random;
+
+    //Time the game started and stopped, in milliseconds
+    protected long startTime = 0;
+    protected long endTime = 0;
 
     //Listeners
     protected NextPieceListener nextPieceListener;
@@ -86,8 +100,21 @@ public class Game {
      * @param rows number of rows
      */
     public Game(int cols, int rows) {
+        this(cols, rows, System.currentTimeMillis());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns and a seed for the pieces. Creates a corresponding grid
+     * model.
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param seed seed for the pieces
+     */
+    public Game(int cols, int rows, long seed) {
         this.cols = cols;
         this.rows = rows;
+        this.seed = seed;
+        this.random = new Random(seed);
 
         //Create a new grid model to represent the game state
         this.grid = new Grid(cols,rows);
@@ -98,6 +125,7 @@ public class Game {
      */
     public void start() {
         logger.info("Starting game");
+        this.startTime = System.currentTimeMillis();
         initialiseGame();
     }
 
@@ -126,8 +154,17 @@ public class Game {
      * Custom timer task to run the game loop and schedule a new task at the end of each cycle with the updated delay
      */
     protected class GameLoopTimeTask extends TimerTask {
+        /**
+         * Timer this task was scheduled on
+         */
+        private final Timer timer = gameLoopTimer;
+
         @Override
         public void run() {
+            if(this.timer != gameLoopTimer) {
+                //The timer has been paused or reset since this task was scheduled
+                return;
+            }
             Platform.runLater(new Runnable() {
                 @Override
                 public void run() {
@@ -142,7 +179,7 @@ public class Game {
      * Handle what should happen when a particular block is clicked
      * @param gameBlock the block that was clicked
      */
-    public void blockClicked(GameBlock gameBlock) {
+    public void blockClicked(BoardBlock gameBlock) {
         //Get the position of this block
         int x = gameBlock.getX();
         int y = gameBlock.getY();
@@ -150,9 +187,15 @@ public class Game {
         if(this.grid.canPlayPiece(this.currentPiece, x, y)) {
             logger.info("Playing piece " + this.currentPiece + " at " + x + ", " + y);
             Multimedia.playAudio("/sounds/place.wav");
-            this.grid.playPiece(this.currentPiece, x, y);
-
-            this.afterPiece();
+            //Group the placement and any lines cleared into one update, so each block changes at most once
+            this.grid.beginUpdate();
+            try {
+                this.grid.playPiece(this.currentPiece, x, y);
+
+                this.afterPiece();
+            } finally {
+                this.grid.endUpdate();
+            }
 
             this.nextPiece();
         } else {
@@ -185,8 +228,7 @@ public class Game {
     }
 
     public GamePiece spawnPiece() {
-        Random random = new Random(System.currentTimeMillis());
-        int piece = random.nextInt(15);
+        int piece = this.random.nextInt(15);
         return GamePiece.createPiece(piece);
     }
 
@@ -391,17 +433,29 @@ public class Game {
     /**
      * Restarts the gameLoop timer
      */
-    private void resetTimer() {
-        this.gameLoopTimer.cancel();
+    protected void resetTimer() {
+        if(this.gameLoopTimer != null) {
+            this.gameLoopTimer.cancel();
+        }
         this.gameLoopTimer = new Timer();
         this.gameLoopTimer.schedule(new GameLoopTimeTask(), getTimerDelay());
         this.gameLoopListener.onGameLoop();
     }
 
+    /**
+     * Stops the gameLoop timer until it is reset, without ending the game
+     */
+    protected void pauseTimer() {
+        if(this.gameLoopTimer != null) {
+            this.gameLoopTimer.cancel();
+            this.gameLoopTimer = null;
+        }
+    }
+
     /**
      * Game Loop
      */
-    private void gameLoop() {
+    protected void gameLoop() {
         if(this.getLives() == 0) {
             this.gameLoopListener.endGame();
         } else {
@@ -417,6 +471,30 @@ public class Game {
      * Stops the game loop
      */
     public void stopGame() {
-        this.gameLoopTimer.cancel();
+        if(this.gameLoopTimer != null) {
+            this.gameLoopTimer.cancel();
+        }
+        if(this.endTime == 0) {
+            this.endTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Get the seed for the pieces in this game
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get how long the game was played for, up to now if it is still running
+     * @return duration in milliseconds
+     */
+    public long getDuration() {
+        if(this.startTime == 0) {
+            return 0;
+        }
+        return (this.endTime == 0 ? System.currentTimeMillis() : this.endTime) - this.startTime;
     }
 }
@@ -5,6 +5,8 @@ import javafx.beans.property.SimpleIntegerProperty;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.BitSet;
+
 /**
  * The Grid is a model which holds the state of a game board. It is made up of a set of Integer values arranged in a 2D
  * arrow, with rows and columns.
@@ -15,6 +17,9 @@ import org.apache.logging.log4j.Logger;
  * The Grid contains functions related to modifying the model, for example, placing a piece inside the grid.
  *
  * The Grid should be linked to a GameBoard for it's display.
+ *
+ * Changes can be grouped into an update with beginUpdate and endUpdate. During an update, values are held back and
+ * the changed blocks marked dirty, so each block's property changes at most once when the update ends.
  */
 public class Grid {
 
@@ -35,6 +40,27 @@ public class Grid {
      */
     private final SimpleIntegerProperty[][] grid;
 
+    /**
+     * Values set during an update which have not been applied to the grid properties yet
+     */
+    private final int[][] pending;
+
+    /**
+     * Blocks changed during the current update, indexed by y * cols + x
+     */
+    private final BitSet dirty;
+
+    /**
+     * Depth of nested updates, 0 when not updating
+     */
+    private int updateDepth = 0;
+
+    /**
+     * Number of writes to any grid which didn't need a property change, as they were overwritten or unchanged by the
+     * end of their update
+     */
+    private static long coalescedWrites = 0;
+
     /**
      * Create a new Grid with the specified number of columns and rows and initialise them
      * @param cols number of columns
@@ -46,6 +72,8 @@ public class Grid {
 
         //Create the grid itself
         grid = new SimpleIntegerProperty[cols][rows];
+        pending = new int[cols][rows];
+        dirty = new BitSet(cols * rows);
 
         //Add a SimpleIntegerProperty to every block in the grid
         for(var y = 0; y < rows; y++) {
@@ -72,7 +100,51 @@ public class Grid {
      * @param value the new value
      */
     public void set(int x, int y, int value) {
-        grid[x][y].set(value);
+        if(updateDepth == 0) {
+            grid[x][y].set(value);
+            return;
+        }
+        //Hold the value back until the update ends
+        int index = y * cols + x;
+        if(dirty.get(index)) {
+            coalescedWrites++;
+        }
+        dirty.set(index);
+        pending[x][y] = value;
+    }
+
+    /**
+     * Start an update. Changes are applied to the grid properties when the outermost update ends.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * End an update, applying every changed value to the grid properties once the outermost update ends
+     */
+    public void endUpdate() {
+        if(updateDepth == 0 || --updateDepth > 0) {
+            return;
+        }
+        for(int index = dirty.nextSetBit(0); index >= 0; index = dirty.nextSetBit(index + 1)) {
+            int x = index % cols;
+            int y = index / cols;
+            if(grid[x][y].get() == pending[x][y]) {
+                coalescedWrites++;
+            } else {
+                grid[x][y].set(pending[x][y]);
+            }
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Get the number of writes across all grids which were absorbed by an update without changing a property
+     * @return number of coalesced writes
+     */
+    public static long getCoalescedWrites() {
+        return coalescedWrites;
     }
 
     /**
@@ -83,7 +155,10 @@ public class Grid {
      */
     public int get(int x, int y) {
         try {
-            //Get the value held in the property at the x and y index provided
+            //Get the value held in the property at the x and y index provided, or the value waiting to be applied
+            if(updateDepth > 0 && x >= 0 && y >= 0 && x < cols && y < rows && dirty.get(y * cols + x)) {
+                return pending[x][y];
+            }
             return grid[x][y].get();
         } catch (ArrayIndexOutOfBoundsException e) {
             //No such index
@@ -117,7 +192,7 @@ public class Grid {
     public boolean canPlayPiece(GamePiece gamePiece, int x, int y) {
         //Return false if centre position is in use
         int[][] blocks = gamePiece.getBlocks();
-        if (this.grid[x][y].get() != 0) {
+        if (this.get(x, y) != 0) {
             return false;
         }
         //Checks whether pieces around the centre can be played
@@ -131,7 +206,7 @@ public class Grid {
                     int yOffset = y + rowDiff;
                     if (xOffset < 0 || yOffset < 0 || xOffset >= this.cols || yOffset >= this.rows) {
                         pieceCanBePlayed = false;
-                    } else if (this.grid[xOffset][yOffset].get() != 0) {
+                    } else if (this.get(xOffset, yOffset) != 0) {
                         pieceCanBePlayed = false;
                     }
                 }
@@ -156,7 +231,7 @@ public class Grid {
                     int rowDiff = row - 1;
                     int xOffset = x + colDiff;
                     int yOffset = y + rowDiff;
-                    this.grid[xOffset][yOffset].set(blocks[col][row]);
+                    this.set(xOffset, yOffset, blocks[col][row]);
                 }
             }
         }
@@ -177,7 +252,7 @@ public class Grid {
                 int rowDiff = row - 1;
                 int xOffset = x + colDiff;
                 int yOffset = y + rowDiff;
-                this.grid[xOffset][yOffset].set(blocks[col][row]);
+                this.set(xOffset, yOffset, blocks[col][row]);
             }
         }
     }
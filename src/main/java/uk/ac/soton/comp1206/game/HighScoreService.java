@@ -0,0 +1,78 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+
+/**
+ * HighScoreService class holding the best local score for the whole game
+ *
+ * The high score is read from the score store once and then kept in memory, so showing it during play never touches
+ * the disk. Whenever a new score is saved the service is told and publishes the new best through its property.
+ */
+public class HighScoreService {
+
+    private static final Logger logger = LogManager.getLogger(HighScoreService.class);
+
+    /**
+     * Shared instance
+     */
+    private static HighScoreService instance;
+
+    /**
+     * Best local score
+     */
+    private final ReadOnlyIntegerWrapper highScore = new ReadOnlyIntegerWrapper(0);
+
+    /**
+     * Get the shared high score service, loading the high score the first time
+     * @return high score service
+     */
+    public static HighScoreService getInstance() {
+        if(instance == null) {
+            instance = new HighScoreService();
+            instance.reload();
+        }
+        return instance;
+    }
+
+    /**
+     * Read the high score from the local score store
+     */
+    public void reload() {
+        try {
+            highScore.set(ScoreStore.local().getTopScore());
+        } catch (IOException e) {
+            logger.error("Unable to load the high score: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record a score which has been saved, publishing it if it is a new best
+     * @param score saved score
+     */
+    public void scoreSaved(int score) {
+        if(score > highScore.get()) {
+            highScore.set(score);
+        }
+    }
+
+    /**
+     * Get the best local score
+     * @return high score
+     */
+    public int getHighScore() {
+        return highScore.get();
+    }
+
+    /**
+     * Get the best local score property
+     * @return high score property
+     */
+    public ReadOnlyIntegerProperty highScoreProperty() {
+        return highScore.getReadOnlyProperty();
+    }
+}
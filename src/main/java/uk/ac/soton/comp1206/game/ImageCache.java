@@ -0,0 +1,203 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.scene.image.Image;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ImageCache class to keep decoded images, keyed by path and requested size
+ *
+ * Images are held by soft references, so the garbage collector can still reclaim them under memory pressure, and the
+ * total decoded size is kept under a byte budget by evicting the least recently used images. The budget can be set
+ * with the tetrecs.imageCacheBytes system property. Hits, misses and evictions are counted.
+ *
+ * The cache is safe to use from the resource loader threads and the FX thread. Images are decoded outside the lock, so
+ * different images can be decoded in parallel.
+ */
+public class ImageCache {
+
+    private static final Logger logger = LogManager.getLogger(ImageCache.class);
+
+    /**
+     * System property to set the byte budget
+     */
+    public static final String BUDGET_PROPERTY = "tetrecs.imageCacheBytes";
+
+    /**
+     * Default byte budget
+     */
+    public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+    /**
+     * A cached image and its decoded size
+     */
+    private static class Entry {
+        final SoftReference<Image> image;
+        final long bytes;
+
+        Entry(Image image, long bytes) {
+            this.image = new SoftReference<>(image);
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Cached images, least recently used first
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Most bytes of decoded images to keep
+     */
+    private final long budget;
+
+    /**
+     * Bytes of decoded images currently kept
+     */
+    private long bytes = 0;
+
+    //Statistics
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Create a new image cache
+     * @param budget most bytes of decoded images to keep
+     */
+    public ImageCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Get the byte budget set by the tetrecs.imageCacheBytes system property, or the default
+     * @return byte budget
+     */
+    public static long configuredBudget() {
+        String value = System.getProperty(BUDGET_PROPERTY);
+        if(value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                logger.error("Invalid {}: {}", BUDGET_PROPERTY, value);
+            }
+        }
+        return DEFAULT_BUDGET;
+    }
+
+    /**
+     * Get an image at its natural size, decoding it if it is not cached
+     * @param file location of image
+     * @return image
+     */
+    public Image get(String file) {
+        return get(file, 0, 0);
+    }
+
+    /**
+     * Get an image decoded to fit a requested size, decoding it if it is not cached
+     * @param file location of image
+     * @param width requested width, or 0 for the natural width
+     * @param height requested height, or 0 for the natural height
+     * @return image
+     */
+    public Image get(String file, double width, double height) {
+        String key = file + "@" + width + "x" + height;
+        Image image = lookup(key);
+        if(image != null) {
+            return image;
+        }
+
+        URL url = ImageCache.class.getResource(file);
+        if(url == null) {
+            throw new IllegalArgumentException("Missing resource " + file);
+        }
+        image = new Image(url.toExternalForm(), width, height, true, true);
+        store(key, image);
+        return image;
+    }
+
+    /**
+     * Find a cached image, counting the hit or miss
+     * @param key cache key
+     * @return image, or null if not cached
+     */
+    private synchronized Image lookup(String key) {
+        Entry entry = entries.get(key);
+        if(entry != null) {
+            Image image = entry.image.get();
+            if(image != null) {
+                hits++;
+                return image;
+            }
+            //Reclaimed by the garbage collector
+            entries.remove(key);
+            bytes -= entry.bytes;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Add an image to the cache, evicting the least recently used images if over budget
+     * @param key cache key
+     * @param image decoded image
+     */
+    private synchronized void store(String key, Image image) {
+        long size = (long) image.getWidth() * (long) image.getHeight() * 4;
+        Entry old = entries.put(key, new Entry(image, size));
+        if(old != null) {
+            bytes -= old.bytes;
+        }
+        bytes += size;
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while(bytes > budget && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if(eldest.getKey().equals(key)) {
+                continue;
+            }
+            bytes -= eldest.getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Get the number of images found in the cache
+     * @return hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of images which had to be decoded
+     * @return misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of images evicted to stay under budget
+     * @return evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get the bytes of decoded images currently kept
+     * @return bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+}
@@ -1,72 +1,85 @@
 package uk.ac.soton.comp1206.game;
 
 import javafx.scene.image.Image;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-
-import java.util.Objects;
 
 /**
  * Multimedia class to handle multimedia events
  */
 public class Multimedia {
     /**
-     * Static audio player
+     * Static sound effect engine
+     */
+    protected static final SoundEngine soundEngine = new SoundEngine(SoundEngine.DEFAULT_MAX_CLIPS);
+
+    /**
+     * Static dispatcher playing sound effects on the audio thread, silently if audio is turned off
      */
-    protected static MediaPlayer audioPlayer;
+    protected static final AudioDispatcher audioDispatcher =
+            new AudioDispatcher(AudioDispatcher.isAudioEnabled() ? soundEngine : AudioSink.SILENT);
+
     /**
-     * Static music player
+     * Static background music manager
      */
-    protected static MediaPlayer musicPlayer;
+    protected static final MusicManager musicManager = new MusicManager();
 
     /**
-     * Plays an audio file once
+     * Plays an audio file once, on the audio thread
      * @param file file to play
      */
     public static void playAudio(String file) {
-        Media media = new Media(getItemPath(file));
-        audioPlayer = new MediaPlayer(media);
-        audioPlayer.play();
+        audioDispatcher.post(file);
     }
 
-
     /**
-     * Retrieves the file path for a given file resources
-     * @param file required file
-     * @return full file path
+     * Get the sound effect engine
+     * @return sound engine
      */
-    private static String getItemPath(String file) {
-        return Objects.requireNonNull(Multimedia.class.getResource(file).toExternalForm());
+    public static SoundEngine getSoundEngine() {
+        return soundEngine;
     }
 
+
     /**
-     * Plays background music on request
+     * Plays background music on request, crossfading from the current track
      * @param file file of background music
      */
     public static void playBackgroundMusic(String file) {
-        Media media = new Media(getItemPath(file));
-        musicPlayer = new MediaPlayer(media);
-        musicPlayer.setAutoPlay(true);
-        //Creates a loop
-        musicPlayer.setCycleCount(MediaPlayer.INDEFINITE);
-        musicPlayer.play();
+        musicManager.play(file);
     }
 
     /**
      * Stops currently playing background music
      */
     public static void stopPlayingBackgroundMusic() {
-        musicPlayer.stop();
+        musicManager.stop();
+    }
+
+    /**
+     * Stops all audio and releases the music players and audio thread
+     */
+    public static void shutdown() {
+        musicManager.shutdown();
+        audioDispatcher.shutdown();
     }
 
     /**
-     * Loads an image from given file
+     * Loads an image from given file, using a cached copy if there is one
      * @param file location of image
      * @return  Image
      */
     public static Image loadImage(String file) {
-        Image img = new Image(getItemPath(file));
-        return img;
+        return ResourceLoader.loadImage(file);
+    }
+
+    /**
+     * Loads an image from given file, decoded to fit the given size, using a cached copy if there is one
+     * @param file location of image
+     * @param width requested width
+     * @param height requested height
+     * @return Image
+     */
+    public static Image loadImage(String file, double width, double height) {
+        return ResourceLoader.loadImage(file, width, height);
     }
 
 }
@@ -1,10 +1,14 @@
 package uk.ac.soton.comp1206.game;
 
 import javafx.application.Platform;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import uk.ac.soton.comp1206.component.BoardBlock;
 import uk.ac.soton.comp1206.network.Communicator;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 
 /**
  * Multiplayer game class which extends from the Game class
@@ -13,9 +17,44 @@ import java.util.LinkedList;
 public class MultiplayerGame extends Game {
 
     /**
-     * Upcoming pieces queue from server
+     * Maximum number of pieces buffered ahead of the following piece
      */
-    private LinkedList<GamePiece> piecesQueue = new LinkedList<GamePiece>();
+    private static final int PREFETCH_CAPACITY = 8;
+
+    /**
+     * Once the buffered and requested pieces drop to this level, a new batch is requested
+     */
+    private static final int PREFETCH_LOW_WATERMARK = 3;
+
+    /**
+     * Upcoming pieces queue from server, bounded by PREFETCH_CAPACITY
+     */
+    private final ArrayDeque<GamePiece> piecesQueue = new ArrayDeque<GamePiece>(PREFETCH_CAPACITY);
+
+    /**
+     * Number of PIECE requests sent that have not been answered yet
+     */
+    private int outstandingPieceRequests = 0;
+
+    /**
+     * Current depth of the prefetch queue, for metrics
+     */
+    private final SimpleIntegerProperty queueDepth = new SimpleIntegerProperty(0);
+
+    /**
+     * Time the current stall began (in nanoseconds), or -1 if the game is not waiting on a piece
+     */
+    private long stallStarted = -1;
+
+    /**
+     * Number of times the game has had to wait on a piece from the server
+     */
+    private int stallCount = 0;
+
+    /**
+     * Total time spent waiting on pieces from the server, in milliseconds
+     */
+    private long totalStallMillis = 0;
 
     /**
      * Server communicator
@@ -27,16 +66,38 @@ public class MultiplayerGame extends Game {
      */
     private HashMap<String, Integer> playerScores = new HashMap<>();
 
+    /**
+     * Last score line shown for each player, used to only pass on changes
+     */
+    private final HashMap<String, String> playerScoreLines = new HashMap<>();
+
+    /**
+     * Score and lives updates predicted locally and waiting on the server
+     */
+    private final ActionLog actionLog = new ActionLog();
+
+    /**
+     * Time after which an unconfirmed prediction is given up on and the server state is used
+     */
+    private static final long PREDICTION_TIMEOUT = 2000;
+
+    /**
+     * Name of the current player
+     */
+    private final String playerName;
+
     /**
      * Create a new game with the specified rows and columns. Creates a corresponding grid model.
      *
      * @param cols number of columns
      * @param rows number of rows
      * @param communicator current server communicator
+     * @param playerName name of the current player
      */
-    public MultiplayerGame(int cols, int rows, Communicator communicator) {
+    public MultiplayerGame(int cols, int rows, Communicator communicator, String playerName) {
         super(cols, rows);
 
+        this.playerName = playerName;
         this.communicator = communicator;
         this.communicator.addListener(message -> {
             Platform.runLater(() -> {
@@ -53,26 +114,128 @@ public class MultiplayerGame extends Game {
 
     @Override
     protected void spawnStartPieces() {
-        this.communicator.send("PIECE");
-        this.communicator.send("PIECE");
-        this.communicator.send("PIECE");
-        this.communicator.send("PIECE");
+        this.requestPieces();
+    }
+
+    @Override
+    public void initialiseGame() {
+        super.initialiseGame();
+        //The game loop doesn't start until the first pieces have arrived
+        this.pauseTimer();
     }
 
     /**
-     * Method to update current scores
+     * Requests a batch of pieces from the server if the pieces held and in flight have dropped to the low watermark.
+     * The batch tops up the current piece, the following piece and the prefetch queue to capacity.
+     */
+    private void requestPieces() {
+        int held = (this.currentPiece == null ? 0 : 1) + (this.followingPiece == null ? 0 : 1) + this.piecesQueue.size();
+        int available = held + this.outstandingPieceRequests;
+        if(available > PREFETCH_LOW_WATERMARK + 2) {
+            return;
+        }
+        int batch = (PREFETCH_CAPACITY + 2) - available;
+        logger.info("Requesting " + batch + " pieces (" + this.piecesQueue.size() + " queued)");
+        for(int i = 0; i < batch; i++) {
+            this.communicator.send("PIECE");
+        }
+        this.outstandingPieceRequests += batch;
+    }
+
+    /**
+     * Method to update current scores from the server. The current player's entry is reconciled against the
+     * predicted actions, and only entries which differ from what is currently shown are passed to the listener.
      * @param scoresList array of list of new scores
      */
     private void updateScores(String[] scoresList) {
+        ArrayList<String> changed = new ArrayList<>();
         for(String scoreStr : scoresList) {
             String[] playerAndScore = scoreStr.split(":");
-            if(this.playerScores.containsKey(playerAndScore[0])) {
-                this.playerScores.replace(playerAndScore[0], Integer.valueOf(playerAndScore[1]));
-            } else {
-                this.playerScores.put(playerAndScore[0], Integer.valueOf(playerAndScore[1]));
+            if(playerAndScore.length < 3) {
+                continue;
+            }
+            String line = scoreStr;
+            if(playerAndScore[0].equals(this.playerName)) {
+                line = this.reconcile(playerAndScore);
             }
+            if(!line.equals(this.playerScoreLines.get(playerAndScore[0]))) {
+                changed.add(line);
+            }
+        }
+        this.applyScores(changed);
+    }
+
+    /**
+     * Reconciles the server's view of the current player with the local predictions
+     * @param playerAndScore split server line of player, score and lives
+     * @return the line which should be shown for the current player
+     */
+    private String reconcile(String[] playerAndScore) {
+        int serverScore = Integer.valueOf(playerAndScore[1]);
+        int serverLives = playerAndScore[2].equals("DEAD") ? -1 : Integer.valueOf(playerAndScore[2]);
+        if(this.actionLog.reconcile(serverScore, serverLives)) {
+            this.communicator.getStats().recordActionConfirmed(this.actionLog.getLastRoundTripMillis());
+        }
+        if(this.actionLog.hasPending() && this.actionLog.expire(PREDICTION_TIMEOUT)) {
+            logger.warn("Predicted score not confirmed by server, using server state");
+        }
+        if(this.actionLog.hasPending()) {
+            //Server hasn't caught up yet, keep showing the prediction
+            return this.predictedLine();
+        }
+        if(serverScore != this.getScore()) {
+            logger.warn("Server score " + serverScore + " differs from local score " + this.getScore() + ", correcting");
+            this.setScore(serverScore);
+        }
+        if(serverLives >= 0 && serverLives != this.getLives()) {
+            logger.warn("Server lives " + serverLives + " differ from local lives " + this.getLives() + ", correcting");
+            //Not sent back to the server, it already has this state
+            super.setLives(serverLives);
+        }
+        return String.join(":", playerAndScore);
+    }
+
+    /**
+     * Builds the score line for the current player from local state
+     * @return predicted score line
+     */
+    private String predictedLine() {
+        return this.playerName + ":" + this.getScore() + ":" + this.getLives();
+    }
+
+    /**
+     * Records a predicted action, sends it to the server and shows the prediction straight away
+     * @param command command to send to the server
+     */
+    private void sendPredicted(String command) {
+        this.actionLog.record(this.getScore(), this.getLives());
+        this.communicator.send(command);
+        if(this.playerName != null) {
+            ArrayList<String> changed = new ArrayList<>();
+            String line = this.predictedLine();
+            if(!line.equals(this.playerScoreLines.get(this.playerName))) {
+                changed.add(line);
+            }
+            this.applyScores(changed);
+        }
+    }
+
+    /**
+     * Stores the changed score lines and passes them on to the scores listener
+     * @param changed score lines which have changed
+     */
+    private void applyScores(ArrayList<String> changed) {
+        if(changed.isEmpty()) {
+            return;
+        }
+        for(String line : changed) {
+            String[] playerAndScore = line.split(":");
+            this.playerScoreLines.put(playerAndScore[0], line);
+            this.playerScores.put(playerAndScore[0], Integer.valueOf(playerAndScore[1]));
+        }
+        if(this.scoresListener != null) {
+            this.scoresListener.updateScores(changed.toArray(new String[0]));
         }
-        this.scoresListener.updateScores(scoresList);
     }
 
     /**
@@ -82,34 +245,115 @@ public class MultiplayerGame extends Game {
     private void onNewPiece(String message) {
         String piece = message.substring(6);
         GamePiece nextPiece = GamePiece.createPiece(Integer.valueOf(piece));
+        if(this.outstandingPieceRequests > 0) {
+            this.outstandingPieceRequests--;
+        }
         if(this.currentPiece == null) {
             this.currentPiece = nextPiece;
         } else if(this.followingPiece == null) {
             this.followingPiece = nextPiece;
+            this.endStall();
             this.nextPieceListener.nextPiece(this.currentPiece, this.followingPiece);
-        } else {
+            if(this.endTime == 0) {
+                //Give the player a full game loop with the piece which was waited on
+                this.resetTimer();
+            }
+        } else if(this.piecesQueue.size() < PREFETCH_CAPACITY) {
             this.piecesQueue.add(nextPiece);
+        } else {
+            logger.warn("Prefetch queue full, dropping piece " + nextPiece);
         }
+        this.queueDepth.set(this.piecesQueue.size());
     }
 
     @Override
     protected void nextPiece() {
+        if(this.followingPiece == null) {
+            //Still waiting on the server, keep the current piece
+            return;
+        }
         this.currentPiece = this.followingPiece;
-        this.followingPiece = this.piecesQueue.remove();
+        this.followingPiece = this.piecesQueue.poll();
+        this.queueDepth.set(this.piecesQueue.size());
+        if(this.followingPiece == null) {
+            //Queue has run dry, wait for the server to catch up rather than failing
+            this.startStall();
+        }
         this.nextPieceListener.nextPiece(this.currentPiece, this.followingPiece);
-        this.communicator.send("PIECE");
+        this.requestPieces();
+    }
+
+    @Override
+    protected void gameLoop() {
+        //A game loop already queued when play stopped to wait on the server mustn't cost a life
+        if(this.followingPiece == null) {
+            return;
+        }
+        super.gameLoop();
+    }
+
+    /**
+     * Marks the start of a stall waiting on the server for pieces, pausing the game loop until it ends
+     */
+    private void startStall() {
+        this.pauseTimer();
+        if(this.stallStarted < 0) {
+            logger.warn("Prefetch queue empty, waiting on server for pieces");
+            this.stallStarted = System.nanoTime();
+            this.stallCount++;
+        }
+    }
+
+    /**
+     * Marks the end of a stall, adding the time waited to the stall total
+     */
+    private void endStall() {
+        if(this.stallStarted >= 0) {
+            long stallMillis = (System.nanoTime() - this.stallStarted) / 1000000;
+            this.totalStallMillis += stallMillis;
+            this.stallStarted = -1;
+            logger.info("Stalled for " + stallMillis + "ms waiting on pieces");
+        }
+    }
+
+    @Override
+    public void blockClicked(BoardBlock gameBlock) {
+        //Pieces can't be played until the server has sent them
+        if(this.currentPiece == null || this.followingPiece == null) {
+            return;
+        }
+        super.blockClicked(gameBlock);
+    }
+
+    @Override
+    public void rotateCurrentPiece(int rotations) {
+        if(this.currentPiece == null || this.followingPiece == null) {
+            return;
+        }
+        super.rotateCurrentPiece(rotations);
+    }
+
+    @Override
+    public void swapCurrentPiece() {
+        if(this.currentPiece == null || this.followingPiece == null) {
+            return;
+        }
+        super.swapCurrentPiece();
     }
 
     @Override
     public void setLives(int lives) {
         super.setLives(lives);
-        this.communicator.send("LIVES " + this.getLives());
+        this.sendPredicted("LIVES " + this.getLives());
     }
 
     @Override
     protected void score(int numOfLines, int numOfBlocks) {
+        int oldScore = this.getScore();
         super.score(numOfLines, numOfBlocks);
-        this.communicator.send("SCORE " + this.getScore());
+        if(this.getScore() != oldScore) {
+            this.sendPredicted("SCORE " + this.getScore());
+        }
     }
 
     @Override
@@ -133,4 +377,24 @@ public class MultiplayerGame extends Game {
     public HashMap<String, Integer> getPlayerScores() {
         return playerScores;
     }
+
+    /**
+     * Returns the current depth of the piece prefetch queue
+     * @return queue depth property
+     */
+    public IntegerProperty queueDepthProperty() {
+        return this.queueDepth;
+    }
+
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    public int getStallCount() {
+        return this.stallCount;
+    }
+
+    public long getTotalStallMillis() {
+        return this.totalStallMillis;
+    }
 }
@@ -0,0 +1,193 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import javafx.util.Duration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MusicManager class to play looping background music
+ *
+ * One streaming MediaPlayer is kept for each track and reused whenever the track is played again, rather than creating
+ * a new player on every scene change. Changing track crossfades the old track out and the new one in. Players are
+ * disposed when they are evicted from the cache or the game shuts down, releasing their native resources. Tracks which
+ * were found to be missing at startup are skipped silently.
+ */
+public class MusicManager {
+
+    private static final Logger logger = LogManager.getLogger(MusicManager.class);
+
+    /**
+     * Most players kept at once
+     */
+    private static final int MAX_PLAYERS = 3;
+
+    /**
+     * Time taken to fade between tracks
+     */
+    private static final Duration CROSSFADE = Duration.millis(600);
+
+    /**
+     * Players for each track, least recently played first
+     */
+    private final LinkedHashMap<String, MediaPlayer> players = new LinkedHashMap<>(MAX_PLAYERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MediaPlayer> eldest) {
+            if(size() > MAX_PLAYERS && eldest.getValue() != current && eldest.getValue() != fadingOut) {
+                logger.info("Releasing music player for {}", eldest.getKey());
+                eldest.getValue().dispose();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Track currently playing, or null
+     */
+    private String currentTrack;
+
+    /**
+     * Player currently playing, or null if nothing is or the track is missing
+     */
+    private MediaPlayer current;
+
+    /**
+     * Player fading out, or null
+     */
+    private MediaPlayer fadingOut;
+
+    //Fade timelines
+    private Timeline fadeIn;
+    private Timeline fadeOut;
+
+    /**
+     * Play a track on a loop, crossfading from whatever is playing. Nothing changes if the track is already playing.
+     * @param file location of track
+     */
+    public void play(String file) {
+        if(file.equals(currentTrack) || !AudioDispatcher.isAudioEnabled()) {
+            return;
+        }
+        MediaPlayer previous = current;
+        currentTrack = file;
+
+        if(ResourceLoader.isMissing(file)) {
+            logger.warn("Music {} is missing, playing nothing", file);
+            current = null;
+            fadeOut(previous);
+            return;
+        }
+
+        //The previous player is still current here, so it can't be evicted while the new one is created
+        MediaPlayer player;
+        try {
+            player = player(file);
+        } catch (RuntimeException e) {
+            logger.error("Unable to play music {}: {}", file, e.getMessage());
+            current = null;
+            fadeOut(previous);
+            return;
+        }
+
+        if(player == fadingOut) {
+            //Still fading out, so bring it back in from where it is
+            fadeOut.stop();
+            fadingOut = null;
+            fadeOut(previous);
+        } else {
+            fadeOut(previous);
+            player.setVolume(0);
+            player.seek(Duration.ZERO);
+            player.play();
+        }
+        current = player;
+
+        if(fadeIn != null) {
+            fadeIn.stop();
+        }
+        fadeIn = new Timeline(new KeyFrame(CROSSFADE, new KeyValue(player.volumeProperty(), 1)));
+        fadeIn.play();
+    }
+
+    /**
+     * Fade out and stop whatever is playing
+     */
+    public void stop() {
+        MediaPlayer previous = current;
+        current = null;
+        currentTrack = null;
+        if(fadeIn != null) {
+            fadeIn.stop();
+        }
+        fadeOut(previous);
+    }
+
+    /**
+     * Stop and dispose every player
+     */
+    public void shutdown() {
+        if(fadeIn != null) {
+            fadeIn.stop();
+        }
+        if(fadeOut != null) {
+            fadeOut.stop();
+        }
+        for(MediaPlayer player : players.values()) {
+            player.dispose();
+        }
+        players.clear();
+        current = null;
+        fadingOut = null;
+        currentTrack = null;
+    }
+
+    /**
+     * Get the player for a track, creating it if needed
+     * @param file location of track
+     * @return player
+     */
+    private MediaPlayer player(String file) {
+        MediaPlayer player = players.get(file);
+        if(player == null) {
+            player = new MediaPlayer(new Media(MusicManager.class.getResource(file).toExternalForm()));
+            player.setCycleCount(MediaPlayer.INDEFINITE);
+            player.setOnError(() -> logger.error("Music error in {}", file));
+            players.put(file, player);
+        }
+        return player;
+    }
+
+    /**
+     * Fade out a player and stop it once it is silent
+     * @param player player to fade out, or null
+     */
+    private void fadeOut(MediaPlayer player) {
+        if(fadeOut != null) {
+            fadeOut.stop();
+        }
+        if(fadingOut != null) {
+            fadingOut.stop();
+            fadingOut = null;
+        }
+        if(player == null) {
+            return;
+        }
+        fadingOut = player;
+        fadeOut = new Timeline(new KeyFrame(CROSSFADE, new KeyValue(player.volumeProperty(), 0)));
+        fadeOut.setOnFinished(e -> {
+            player.stop();
+            if(fadingOut == player) {
+                fadingOut = null;
+            }
+        });
+        fadeOut.play();
+    }
+}
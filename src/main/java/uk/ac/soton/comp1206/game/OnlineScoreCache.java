@@ -0,0 +1,177 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.util.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.network.Communicator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OnlineScoreCache class holding the online high scores between games
+ *
+ * The last scores received from the server are kept, so the scores screen can show them straight away. They are only
+ * requested again once they are older than the time to live; until the reply arrives the old scores stay on screen
+ * (stale while revalidate). Scores the player submits are added to the cached list so it stays correct without another
+ * request. The cache is only used from the FX thread.
+ */
+public class OnlineScoreCache {
+
+    private static final Logger logger = LogManager.getLogger(OnlineScoreCache.class);
+
+    /**
+     * How long fetched scores are fresh for, in milliseconds
+     */
+    public static final long TIME_TO_LIVE = 120000;
+
+    /**
+     * How long to wait for a reply before another request can be sent, in milliseconds
+     */
+    private static final long REQUEST_TIMEOUT = 5000;
+
+    /**
+     * Command sent to request the scores, and the start of the reply
+     */
+    private static final String COMMAND = "HISCORES";
+
+    /**
+     * Shared instance
+     */
+    private static OnlineScoreCache instance;
+
+    /**
+     * Cached scores, highest first
+     */
+    private final ObservableList<Pair<String,Integer>> scores = FXCollections.observableArrayList();
+
+    /**
+     * Time the scores were last received, or -1 if never
+     */
+    private long fetchedAt = -1;
+
+    /**
+     * Time the pending request was sent, or -1 if none is pending
+     */
+    private long requestedAt = -1;
+
+    /**
+     * Get the shared online score cache
+     * @return online score cache
+     */
+    public static OnlineScoreCache getInstance() {
+        if(instance == null) {
+            instance = new OnlineScoreCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the cached scores, which may be stale
+     * @return read-only list of names and scores, highest first
+     */
+    public ObservableList<Pair<String,Integer>> getScores() {
+        return FXCollections.unmodifiableObservableList(scores);
+    }
+
+    /**
+     * Whether any scores have been received
+     * @return true if scores are cached
+     */
+    public boolean hasScores() {
+        return fetchedAt >= 0;
+    }
+
+    /**
+     * Whether the cached scores are younger than the time to live
+     * @return true if fresh
+     */
+    public boolean isFresh() {
+        return fetchedAt >= 0 && System.currentTimeMillis() - fetchedAt < TIME_TO_LIVE;
+    }
+
+    /**
+     * Request the scores from the server, unless they are fresh or a request is already waiting for a reply
+     * @param communicator server communicator, may be null when offline
+     * @return true if a request was sent
+     */
+    public boolean refresh(Communicator communicator) {
+        if(communicator == null || isFresh()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if(requestedAt >= 0 && now - requestedAt < REQUEST_TIMEOUT) {
+            return false;
+        }
+        requestedAt = now;
+        communicator.send(COMMAND);
+        return true;
+    }
+
+    /**
+     * Handle a message from the server, updating the cache if it holds the scores
+     * @param message message received
+     * @return true if the message held the scores
+     */
+    public boolean receive(String message) {
+        if(!message.equals(COMMAND) && !message.startsWith(COMMAND + " ")) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if(requestedAt >= 0) {
+            logger.info("Received online scores in {}ms", now - requestedAt);
+        }
+        scores.setAll(parse(message));
+        fetchedAt = now;
+        requestedAt = -1;
+        return true;
+    }
+
+    /**
+     * Add a score the player has submitted to the cached scores, keeping the same number of scores
+     * @param name player name
+     * @param score score
+     */
+    public void submitted(String name, int score) {
+        int position = 0;
+        while(position < scores.size() && scores.get(position).getValue() >= score) {
+            position++;
+        }
+        if(position >= scores.size()) {
+            return;
+        }
+        List<Pair<String,Integer>> updated = new ArrayList<>(scores);
+        updated.add(position, new Pair<>(name, score));
+        updated.remove(updated.size() - 1);
+        scores.setAll(updated);
+    }
+
+    /**
+     * Parse the scores from a HISCORES reply in a single pass
+     * @param message reply, with one name:score pair per line
+     * @return names and scores, in the order received
+     */
+    public static List<Pair<String,Integer>> parse(String message) {
+        List<Pair<String,Integer>> parsed = new ArrayList<>();
+        int start = COMMAND.length();
+        while(start < message.length()) {
+            int end = message.indexOf('\n', start);
+            if(end < 0) {
+                end = message.length();
+            }
+            String line = message.substring(start, end).trim();
+            int split = line.lastIndexOf(':');
+            if(split > 0) {
+                try {
+                    parsed.add(new Pair<>(line.substring(0, split), Integer.parseInt(line.substring(split + 1).trim())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Skipping invalid online score: {}", line);
+                }
+            }
+            start = end + 1;
+        }
+        return parsed;
+    }
+}
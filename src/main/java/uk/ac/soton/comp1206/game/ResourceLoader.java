@@ -0,0 +1,229 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.media.AudioClip;
+import javafx.scene.text.Font;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ResourceLoader class to load the game's images, fonts and sounds on a background pool at startup
+ *
+ * Each resource is loaded by its own task, so they are decoded in parallel while the intro is shown. Loaded images are
+ * kept in an ImageCache and sound clips in a map, so scenes can fetch them without decoding them again on the FX
+ * thread.
+ */
+public class ResourceLoader {
+
+    private static final Logger logger = LogManager.getLogger(ResourceLoader.class);
+
+    /**
+     * Images used by the scenes. The backgrounds are left out, as the stylesheet loads them through its own cache.
+     */
+    public static final String[] IMAGES = {
+            "/images/TetrECS.png",
+            "/images/Instructions.png",
+            "/images/ECSGames.png"
+    };
+
+    /**
+     * Fonts used by the stylesheet
+     */
+    public static final String[] FONTS = {
+            "/style/Orbitron-Regular.ttf",
+            "/style/Orbitron-Bold.ttf",
+            "/style/Orbitron-ExtraBold.ttf"
+    };
+
+    /**
+     * Sound effects
+     */
+    public static final String[] SOUNDS = {
+            "/sounds/clear.wav",
+            "/sounds/explode.wav",
+            "/sounds/fail.wav",
+            "/sounds/level.wav",
+            "/sounds/lifegain.wav",
+            "/sounds/lifelose.wav",
+            "/sounds/message.wav",
+            "/sounds/place.wav",
+            "/sounds/pling.wav",
+            "/sounds/rotate.wav",
+            "/sounds/transition.wav"
+    };
+
+    /**
+     * Background music, streamed by the MusicManager rather than preloaded
+     */
+    public static final String[] MUSIC = {
+            "/music/menu.mp3",
+            "/music/game.wav",
+            "/music/end.wav"
+    };
+
+    /**
+     * Resources found to be missing at startup
+     */
+    private static final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Decoded images, by path and size
+     */
+    private static final ImageCache images = new ImageCache(ImageCache.configuredBudget());
+
+    /**
+     * Loaded sound clips, by path
+     */
+    private static final ConcurrentHashMap<String, AudioClip> clips = new ConcurrentHashMap<>();
+
+    /**
+     * Whether preloading has been started
+     */
+    private static boolean started = false;
+
+    /**
+     * Load every resource in parallel on a background pool
+     * @param onComplete called on the FX thread once everything has loaded
+     */
+    public static void preload(Runnable onComplete) {
+        if(started) {
+            Platform.runLater(onComplete);
+            return;
+        }
+        started = true;
+        long start = System.nanoTime();
+        validate();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for(String font : FONTS) {
+            tasks.add(() -> Font.loadFont(ResourceLoader.class.getResourceAsStream(font), 32));
+        }
+        for(String image : IMAGES) {
+            tasks.add(() -> loadImage(image));
+        }
+        for(String sound : SOUNDS) {
+            tasks.add(() -> loadClip(sound));
+        }
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Resource Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        for(Runnable task : tasks) {
+            pool.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("Unable to preload resource: {}", e.getMessage());
+                }
+                if(remaining.decrementAndGet() == 0) {
+                    logger.info("Preloaded {} resources in {}ms, {} bytes of images cached", tasks.size(),
+                            (System.nanoTime() - start) / 1000000, images.getBytes());
+                    Platform.runLater(onComplete);
+                }
+            });
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Check every known resource exists, logging and remembering any which are missing so they can be skipped later
+     * @return true if every resource was found
+     */
+    public static boolean validate() {
+        for(String[] files : List.of(FONTS, IMAGES, SOUNDS, MUSIC)) {
+            for(String file : files) {
+                if(!exists(file)) {
+                    missing.add(file);
+                }
+            }
+        }
+        if(!missing.isEmpty()) {
+            logger.error("Missing resources: {}", missing);
+        }
+        return missing.isEmpty();
+    }
+
+    /**
+     * Whether a resource was found to be missing, or does not exist
+     * @param file location of resource
+     * @return true if missing
+     */
+    public static boolean isMissing(String file) {
+        return missing.contains(file) || !exists(file);
+    }
+
+    /**
+     * Get an image, decoding and caching it if it has not been loaded yet
+     * @param file location of image
+     * @return image
+     */
+    public static Image loadImage(String file) {
+        return images.get(file);
+    }
+
+    /**
+     * Get an image decoded to fit a requested size, decoding and caching it if it has not been loaded yet
+     * @param file location of image
+     * @param width requested width
+     * @param height requested height
+     * @return image
+     */
+    public static Image loadImage(String file, double width, double height) {
+        return images.get(file, width, height);
+    }
+
+    /**
+     * Get the image cache
+     * @return image cache
+     */
+    public static ImageCache getImageCache() {
+        return images;
+    }
+
+    /**
+     * Get a sound clip, loading and keeping it if it has not been loaded yet
+     * @param file location of sound
+     * @return sound clip
+     */
+    public static AudioClip loadClip(String file) {
+        return clips.computeIfAbsent(file, key -> new AudioClip(getUrl(key).toExternalForm()));
+    }
+
+    /**
+     * Whether a resource exists
+     * @param file location of resource
+     * @return true if found
+     */
+    public static boolean exists(String file) {
+        return ResourceLoader.class.getResource(file) != null;
+    }
+
+    /**
+     * Get the URL of a resource
+     * @param file location of resource
+     * @return URL
+     * @throws IllegalArgumentException if the resource does not exist
+     */
+    private static URL getUrl(String file) {
+        URL url = ResourceLoader.class.getResource(file);
+        if(url == null) {
+            throw new IllegalArgumentException("Missing resource " + file);
+        }
+        return url;
+    }
+}
@@ -0,0 +1,345 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * ScoreHistory class holding an append-only log of every completed game
+ *
+ * Each game is appended as a fixed-size record with its own checksum:
+ * <pre>
+ * header: magic (int), version (int), reserved (8 bytes)
+ * record: timestamp (long), seed (long), duration in milliseconds (long), score (int), level (int),
+ *         name (32 bytes of UTF-8, padded with zeros), CRC32 of the previous fields (int), padding (4 bytes)
+ * </pre>
+ * A record only partly written by a crash is cut off when the log is opened, and records with a bad checksum are
+ * skipped when reading.
+ *
+ * The log is never read to show the leaderboard. Instead a ScoreStore acts as a top-K index, recording how many log
+ * records it has seen. New records are added to it as they are recorded, and any records it missed are caught up
+ * when the log is opened by streaming them through a min-heap of the K best.
+ *
+ * Recorded games are appended by the ScoreWriter thread, and the index only counts a game once its append has
+ * succeeded, so the index on disk never claims a record the log does not have. The shared local log is also opened
+ * and caught up on that thread, so however long it grows it is never read on the FX thread.
+ */
+public class ScoreHistory implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(ScoreHistory.class);
+
+    /**
+     * File holding the local score history
+     */
+    public static final String LOCAL_FILE = "history.bin";
+
+    //File layout
+    private static final int MAGIC = 0x54454348;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int NAME_SIZE = 32;
+    private static final int RECORD_SIZE = 72;
+    private static final int CRC_OFFSET = 64;
+
+    /**
+     * Number of records read at a time when streaming the log
+     */
+    private static final int READ_BATCH = 1024;
+
+    /**
+     * A completed game
+     * @param timestamp time the game finished, in milliseconds since the epoch
+     * @param seed seed for the pieces
+     * @param level level reached
+     * @param duration time played, in milliseconds
+     * @param score final score
+     * @param name player name
+     */
+    public record GameRecord(long timestamp, long seed, int level, long duration, int score, String name) {}
+
+    /**
+     * Shared local score history
+     */
+    private static ScoreHistory local;
+
+    /**
+     * Whether the shared local score history has been opened and has caught up its index
+     */
+    private static volatile boolean localReady = false;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    /**
+     * Number of records in the log
+     */
+    private volatile long size;
+
+    /**
+     * Get the shared local score history, opening it and catching up the local score store the first time. This can
+     * read the whole log, so it should only be called on the ScoreWriter thread.
+     * @return local score history
+     * @throws IOException if the history can't be opened
+     */
+    public static synchronized ScoreHistory local() throws IOException {
+        if(local == null) {
+            local = new ScoreHistory(Path.of(LOCAL_FILE));
+            local.catchUp(ScoreStore.local());
+            localReady = true;
+        }
+        return local;
+    }
+
+    /**
+     * Open the shared local score history and catch up the local score store on the ScoreWriter thread
+     */
+    public static void openLocal() {
+        ScoreWriter.getInstance().submit(ScoreHistory::local);
+    }
+
+    /**
+     * Record a game in the shared local score history, and add it to the local score store. The game is appended on
+     * the ScoreWriter thread, and the score store is saved with the game counted only after the append succeeds.
+     *
+     * If the history is already open the score is added to the store in memory straight away. Otherwise it is added
+     * on the ScoreWriter thread once the store has caught up, since catching up may rebuild the store.
+     * @param record completed game
+     * @param index local score store
+     */
+    public static void recordLocal(GameRecord record, ScoreStore index) {
+        boolean ready = localReady;
+        if(ready) {
+            index.insertUnsaved(record.name(), record.score());
+        }
+        ScoreWriter.getInstance().submit(() -> {
+            ScoreHistory history = local();
+            if(!ready) {
+                index.insertUnsaved(record.name(), record.score());
+            }
+            history.append(record);
+            //Only count the record once it is in the log, saving the new score in the same snapshot as the count
+            index.setIndexedRecords(history.size());
+        });
+    }
+
+    /**
+     * Close the shared local score history, if open
+     */
+    public static synchronized void closeLocal() {
+        if(local != null) {
+            local.close();
+            local = null;
+            localReady = false;
+        }
+    }
+
+    /**
+     * Open a score history, creating it if needed
+     * @param file log file
+     * @throws IOException if the file can't be opened
+     */
+    public ScoreHistory(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if(channel.size() < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).rewind();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            channel.read(header, 0);
+            if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a score history file: " + file);
+            }
+        }
+
+        //Cut off any record left half written
+        this.size = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        long end = HEADER_SIZE + size * RECORD_SIZE;
+        if(channel.size() > end) {
+            logger.warn("Removing a partly written record from {}", file);
+            channel.truncate(end);
+        }
+    }
+
+    /**
+     * Get the number of games in the log, not counting any still waiting to be appended
+     * @return number of records
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Append a game to the log and force it to disk
+     * @param record completed game
+     * @throws IOException if the record can't be written
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(record.timestamp());
+        buffer.putLong(record.seed());
+        buffer.putLong(record.duration());
+        buffer.putInt(record.score());
+        buffer.putInt(record.level());
+        buffer.put(encodeName(record.name()));
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, CRC_OFFSET);
+        buffer.putInt((int) crc.getValue());
+        buffer.rewind();
+
+        long position = HEADER_SIZE + size * RECORD_SIZE;
+        while(buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+        size++;
+    }
+
+    /**
+     * Add any records a top-K index has not seen yet
+     * @param index score store indexing this log
+     * @throws IOException if the log can't be read
+     */
+    public synchronized void catchUp(ScoreStore index) throws IOException {
+        long indexed = index.getIndexedRecords();
+        if(indexed > size) {
+            //The index was made for a different log, so clear it and rebuild it from the start
+            logger.warn("Score index is ahead of {}, rebuilding it", file);
+            index.clear();
+            indexed = 0;
+        }
+        if(indexed == size) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<GameRecord> best = topK(indexed, index.getCapacity());
+        for(GameRecord record : best) {
+            index.insertUnsaved(record.name(), record.score());
+        }
+        index.setIndexedRecords(size);
+        logger.info("Indexed {} games from {} in {}ms", size - indexed, file, (System.nanoTime() - start) / 1000000);
+    }
+
+    /**
+     * Find the K highest scoring games from a position in the log, using a min-heap
+     * @param from first record to read
+     * @param k number of games to keep
+     * @return the best games, highest first
+     * @throws IOException if the log can't be read
+     */
+    public synchronized List<GameRecord> topK(long from, int k) throws IOException {
+        PriorityQueue<GameRecord> heap = new PriorityQueue<>(k + 1, Comparator.comparingInt(GameRecord::score));
+        forEach(from, record -> {
+            if(heap.size() < k) {
+                heap.add(record);
+            } else if(record.score() > heap.peek().score()) {
+                heap.poll();
+                heap.add(record);
+            }
+        });
+        List<GameRecord> best = new ArrayList<>(heap);
+        best.sort(Comparator.comparingInt(GameRecord::score).reversed());
+        return best;
+    }
+
+    /**
+     * Read every valid record from a position in the log, in batches
+     * @param from first record to read
+     * @param consumer called with each record
+     * @throws IOException if the log can't be read
+     */
+    public synchronized void forEach(long from, Consumer<GameRecord> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BATCH * RECORD_SIZE);
+        long index = from;
+        while(index < size) {
+            buffer.clear();
+            int records = (int) Math.min(READ_BATCH, size - index);
+            buffer.limit(records * RECORD_SIZE);
+            long position = HEADER_SIZE + index * RECORD_SIZE;
+            while(buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if(read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            buffer.flip();
+            for(int i = 0; i < records; i++) {
+                GameRecord record = decode(buffer, i * RECORD_SIZE);
+                if(record != null) {
+                    consumer.accept(record);
+                }
+            }
+            index += records;
+        }
+    }
+
+    /**
+     * Decode a record, checking its checksum
+     * @param buffer buffer holding the record
+     * @param offset offset of the record
+     * @return record, or null if corrupt
+     */
+    private GameRecord decode(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), offset, CRC_OFFSET);
+        if((int) crc.getValue() != buffer.getInt(offset + CRC_OFFSET)) {
+            logger.warn("Skipping corrupt record in {}", file);
+            return null;
+        }
+        byte[] name = new byte[NAME_SIZE];
+        buffer.get(offset + 32, name);
+        int length = 0;
+        while(length < NAME_SIZE && name[length] != 0) {
+            length++;
+        }
+        return new GameRecord(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getInt(offset + 28),
+                buffer.getLong(offset + 16), buffer.getInt(offset + 24), new String(name, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encode a name into a fixed number of bytes
+     * @param name name
+     * @return encoded name, padded with zeros
+     */
+    private static byte[] encodeName(String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(encoded.length, NAME_SIZE);
+        //Don't cut a multi-byte character in half
+        while(length < encoded.length && length > 0 && (encoded[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        byte[] padded = new byte[NAME_SIZE];
+        System.arraycopy(encoded, 0, padded, 0, length);
+        return padded;
+    }
+
+    /**
+     * Close the log
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Unable to close score history {}: {}", file, e.getMessage());
+        }
+    }
+}
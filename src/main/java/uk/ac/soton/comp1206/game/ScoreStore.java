@@ -0,0 +1,397 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.util.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * ScoreStore class holding a table of high scores, saved in a binary file
+ *
+ * The file has a fixed header followed by fixed-size records, kept in descending order of score:
+ * <pre>
+ * header: magic (int), version (int), capacity (int), count (int), CRC32 of the records (int),
+ *         number of score history records indexed (long), reserved (4 bytes)
+ * record: name (32 bytes of UTF-8, padded with zeros), score (int)
+ * </pre>
+ * The top score is always the first record, so it can be read without scanning. The table is read into memory once and
+ * updated there, and after each update a snapshot is handed to the ScoreWriter, which atomically replaces the file on
+ * its own thread, so a crash leaves either the old table or the new one. A file with a bad header or checksum is kept
+ * beside it with a .corrupt suffix and replaced with the default scores, with the history count cleared so the
+ * ScoreHistory rebuilds the table from every recorded game.
+ *
+ * The first time the store is created, scores from the old scores.tetrecs text file are migrated if it exists.
+ */
+public class ScoreStore {
+
+    private static final Logger logger = LogManager.getLogger(ScoreStore.class);
+
+    /**
+     * File holding the local high scores
+     */
+    public static final String LOCAL_FILE = "scores.bin";
+
+    /**
+     * Old text file the local high scores are migrated from
+     */
+    public static final String LEGACY_FILE = "scores.tetrecs";
+
+    /**
+     * Number of local high scores kept
+     */
+    public static final int LOCAL_CAPACITY = 10;
+
+    //File layout
+    private static final int MAGIC = 0x54454353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int NAME_SIZE = 32;
+    private static final int RECORD_SIZE = NAME_SIZE + 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int CRC_OFFSET = 16;
+    private static final int INDEXED_OFFSET = 20;
+
+    /**
+     * Shared store of the local high scores
+     */
+    private static ScoreStore local;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    /**
+     * Number of records held
+     */
+    private int count;
+
+    /**
+     * Get the shared store of local high scores, opening it the first time
+     * @return local score store
+     * @throws IOException if the store can't be opened
+     */
+    public static synchronized ScoreStore local() throws IOException {
+        if(local == null) {
+            local = open(Path.of(LOCAL_FILE), LOCAL_CAPACITY, Path.of(LEGACY_FILE));
+        }
+        return local;
+    }
+
+    /**
+     * Forget the shared store of local high scores. Any snapshots still waiting are written by the ScoreWriter.
+     */
+    public static synchronized void closeLocal() {
+        local = null;
+    }
+
+    /**
+     * Open a score store, creating it if needed
+     * @param file file the store is saved in
+     * @param capacity number of records to keep
+     * @param legacy text file to migrate scores from if the store is new, may be null
+     * @return score store
+     * @throws IOException if the file can't be read
+     */
+    public static ScoreStore open(Path file, int capacity, Path legacy) throws IOException {
+        boolean created = !Files.exists(file);
+        ScoreStore store = new ScoreStore(file, capacity);
+        if(!created) {
+            store.load();
+        }
+        if(created) {
+            store.reset(legacy);
+        } else if(!store.isValid()) {
+            //Keep the damaged file, and rebuild from the score history rather than the stale legacy scores
+            Path backup = file.resolveSibling(file.getFileName() + ".corrupt");
+            try {
+                Files.copy(file, backup, StandardCopyOption.REPLACE_EXISTING);
+                logger.error("Score store {} is corrupt, kept a copy as {}", file, backup);
+            } catch (IOException e) {
+                logger.error("Score store {} is corrupt and could not be copied: {}", file, e.getMessage());
+            }
+            store.reset(null);
+        }
+        return store;
+    }
+
+    /**
+     * Create an empty score store
+     * @param file file the store is saved in
+     * @param capacity number of records to keep
+     */
+    private ScoreStore(Path file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocate(HEADER_SIZE + capacity * RECORD_SIZE);
+    }
+
+    /**
+     * Read the file into memory
+     * @throws IOException if the file can't be read
+     */
+    private void load() throws IOException {
+        byte[] contents = Files.readAllBytes(file);
+        buffer.put(0, contents, 0, Math.min(contents.length, buffer.capacity()));
+        this.count = Math.max(0, Math.min(capacity, buffer.getInt(COUNT_OFFSET)));
+    }
+
+    /**
+     * Check the header and checksum
+     * @return true if the store is valid
+     */
+    private boolean isValid() {
+        return buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == VERSION
+                && buffer.getInt(CAPACITY_OFFSET) == capacity
+                && buffer.getInt(COUNT_OFFSET) == count
+                && buffer.getInt(CRC_OFFSET) == checksum();
+    }
+
+    /**
+     * Fill the store with scores migrated from the legacy file, or the defaults
+     * @param legacy text file to migrate from, may be null
+     */
+    private void reset(Path legacy) {
+        List<Pair<String, Integer>> scores = new ArrayList<>();
+        if(legacy != null && Files.exists(legacy)) {
+            try {
+                for(String line : Files.readAllLines(legacy, StandardCharsets.UTF_8)) {
+                    int split = line.lastIndexOf(':');
+                    if(split > 0) {
+                        scores.add(new Pair<>(line.substring(0, split), Integer.valueOf(line.substring(split + 1).trim())));
+                    }
+                }
+                logger.info("Migrated {} scores from {}", scores.size(), legacy);
+            } catch (IOException | NumberFormatException e) {
+                logger.error("Unable to migrate scores from {}: {}", legacy, e.getMessage());
+                scores.clear();
+            }
+        }
+        if(scores.isEmpty()) {
+            //Default scores from 10000 to 1000 with name Finley, every 1000
+            for(int i = 10000; i > 0; i -= 1000) {
+                scores.add(new Pair<>("Finley", i));
+            }
+        }
+        scores.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+        count = Math.min(capacity, scores.size());
+        for(int i = 0; i < count; i++) {
+            writeRecord(i, scores.get(i).getKey(), scores.get(i).getValue());
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putLong(INDEXED_OFFSET, 0);
+        commit();
+    }
+
+    /**
+     * Get the highest score in the store
+     * @return top score, or 0 if empty
+     */
+    public synchronized int getTopScore() {
+        return count == 0 ? 0 : buffer.getInt(HEADER_SIZE + NAME_SIZE);
+    }
+
+    /**
+     * Get the lowest score in the store
+     * @return lowest score, or 0 if empty
+     */
+    public synchronized int getLowestScore() {
+        return count == 0 ? 0 : getScore(count - 1);
+    }
+
+    /**
+     * Get the number of scores held
+     * @return number of scores
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Get the number of scores which can be held
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get every score, highest first
+     * @return list of names and scores
+     */
+    public synchronized List<Pair<String, Integer>> getScores() {
+        List<Pair<String, Integer>> scores = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            scores.add(new Pair<>(getName(i), getScore(i)));
+        }
+        return scores;
+    }
+
+    /**
+     * Get the position a score would take in the store
+     * @param score score to check
+     * @return position from 0, or -1 if the score is not high enough
+     */
+    public synchronized int rankOf(int score) {
+        for(int i = 0; i < count; i++) {
+            if(score > getScore(i)) {
+                return i;
+            }
+        }
+        return count < capacity ? count : -1;
+    }
+
+    /**
+     * Insert a score in order, pushing lower scores down and dropping the lowest if full
+     * @param name player name
+     * @param score score
+     * @return position the score was inserted at, or -1 if it was not high enough
+     */
+    public synchronized int insert(String name, int score) {
+        int position = place(name, score);
+        if(position >= 0) {
+            commit();
+        }
+        return position;
+    }
+
+    /**
+     * Insert a score in order without saving it, so it can be saved later in the same snapshot as the number of
+     * history records indexed
+     * @param name player name
+     * @param score score
+     * @return position the score was inserted at, or -1 if it was not high enough
+     */
+    public synchronized int insertUnsaved(String name, int score) {
+        return place(name, score);
+    }
+
+    /**
+     * Replace every score with the defaults and clear the number of history records indexed, so the index can be
+     * rebuilt from the start of the score history
+     */
+    public synchronized void clear() {
+        reset(null);
+    }
+
+    /**
+     * Insert a score in order in memory, without saving it
+     * @param name player name
+     * @param score score
+     * @return position the score was inserted at, or -1 if it was not high enough
+     */
+    private int place(String name, int score) {
+        int position = rankOf(score);
+        if(position < 0) {
+            return -1;
+        }
+        int last = Math.min(count, capacity - 1);
+        for(int i = last; i > position; i--) {
+            copyRecord(i - 1, i);
+        }
+        writeRecord(position, name, score);
+        count = Math.min(count + 1, capacity);
+        return position;
+    }
+
+    /**
+     * Replace every score in the store
+     * @param scores new scores, in any order
+     */
+    public synchronized void replaceAll(List<Pair<String, Integer>> scores) {
+        List<Pair<String, Integer>> sorted = new ArrayList<>(scores);
+        sorted.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        count = Math.min(capacity, sorted.size());
+        for(int i = 0; i < count; i++) {
+            writeRecord(i, sorted.get(i).getKey(), sorted.get(i).getValue());
+        }
+        commit();
+    }
+
+    /**
+     * Get the number of score history records which have been added to this store
+     * @return number of history records indexed
+     */
+    public synchronized long getIndexedRecords() {
+        return buffer.getLong(INDEXED_OFFSET);
+    }
+
+    /**
+     * Set the number of score history records which have been added to this store
+     * @param records number of history records indexed
+     */
+    public synchronized void setIndexedRecords(long records) {
+        buffer.putLong(INDEXED_OFFSET, records);
+        commit();
+    }
+
+    /**
+     * Update the count and checksum, then hand a snapshot to the ScoreWriter to be saved
+     */
+    private void commit() {
+        buffer.putInt(COUNT_OFFSET, count);
+        buffer.putInt(CRC_OFFSET, checksum());
+        ScoreWriter.getInstance().replace(file, Arrays.copyOf(buffer.array(), buffer.capacity()));
+    }
+
+    /**
+     * Work out the checksum of the records held
+     * @return CRC32 of the records
+     */
+    private int checksum() {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, count * RECORD_SIZE));
+        return (int) crc.getValue();
+    }
+
+    private int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private int getScore(int index) {
+        return buffer.getInt(recordOffset(index) + NAME_SIZE);
+    }
+
+    private String getName(int index) {
+        byte[] name = new byte[NAME_SIZE];
+        buffer.get(recordOffset(index), name);
+        int length = 0;
+        while(length < NAME_SIZE && name[length] != 0) {
+            length++;
+        }
+        return new String(name, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void writeRecord(int index, String name, int score) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(encoded.length, NAME_SIZE);
+        //Don't cut a multi-byte character in half
+        while(length < encoded.length && length > 0 && (encoded[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        byte[] padded = new byte[NAME_SIZE];
+        System.arraycopy(encoded, 0, padded, 0, length);
+        buffer.put(recordOffset(index), padded);
+        buffer.putInt(recordOffset(index) + NAME_SIZE, score);
+    }
+
+    private void copyRecord(int from, int to) {
+        byte[] record = new byte[RECORD_SIZE];
+        buffer.get(recordOffset(from), record);
+        buffer.put(recordOffset(to), record);
+    }
+}
@@ -0,0 +1,380 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.application.Platform;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScoreWriter class to write score files on a single background thread, so the FX thread never waits for the disk
+ *
+ * Whole files are replaced atomically: the new contents are written to a temporary file beside the target, forced to
+ * disk, then renamed over the target, so a crash leaves either the old file or the new one and never a half-written
+ * one. If a file is replaced again before the previous write has started, the two are coalesced and only the newest
+ * contents are written. Other writes, such as appends to the score history, run in the order they were submitted.
+ *
+ * Callbacks registered with whenWritten run on the FX thread once everything submitted before them, and any writes those
+ * queue in turn, is on disk. If one of those writes fails, the failure callback runs instead, so the UI can tell the
+ * player their score was not saved. The time each write takes is logged and kept for inspection.
+ */
+public class ScoreWriter {
+
+    private static final Logger logger = LogManager.getLogger(ScoreWriter.class);
+
+    /**
+     * Longest time to wait for pending writes when shutting down, in seconds
+     */
+    private static final int SHUTDOWN_TIMEOUT = 5;
+
+    /**
+     * A write to the disk
+     */
+    public interface Write {
+        /**
+         * Perform the write
+         * @throws IOException if the write fails
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Callbacks waiting on a write
+     * @param onWritten run if the writes succeed
+     * @param onFailed run if one of the writes fails, or null
+     */
+    private record Callback(Runnable onWritten, Runnable onFailed) {}
+
+    /**
+     * A write waiting for the writer thread
+     */
+    private static class Job {
+        /**
+         * File replaced by the write, or null if it can't be coalesced
+         */
+        final Path file;
+        final Write write;
+        final long submittedAt;
+        final List<Callback> callbacks = new ArrayList<>();
+
+        Job(Path file, Write write, long submittedAt) {
+            this.file = file;
+            this.write = write;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    /**
+     * Shared instance
+     */
+    private static ScoreWriter instance;
+
+    /**
+     * Writes waiting to run, oldest first
+     */
+    private final ArrayDeque<Job> pending = new ArrayDeque<>();
+
+    /**
+     * The write currently running, if any
+     */
+    private Job running;
+
+    /**
+     * Number of writes added to the back of the queue, to tell whether a write queued more while it ran
+     */
+    private long queued = 0;
+
+    /**
+     * Whether the writer has been shut down. Writes queued by the writer thread itself are still accepted.
+     */
+    private boolean closed = false;
+
+    /**
+     * The writer thread
+     */
+    private Thread writerThread;
+
+    /**
+     * Executor running the writes on the writer thread
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Score Writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        return thread;
+    });
+
+    //Statistics
+    private long writes = 0;
+    private long coalesced = 0;
+    private long failures = 0;
+    private long lastLatency = 0;
+    private long maxLatency = 0;
+
+    /**
+     * Get the shared score writer, starting it the first time
+     * @return score writer
+     */
+    public static synchronized ScoreWriter getInstance() {
+        if(instance == null) {
+            instance = new ScoreWriter();
+        }
+        return instance;
+    }
+
+    /**
+     * Replace the contents of a file atomically, coalescing with any earlier replacement of the same file which has
+     * not started yet
+     * @param file file to replace
+     * @param contents new contents
+     */
+    public synchronized void replace(Path file, byte[] contents) {
+        if(!isAccepting(file)) {
+            return;
+        }
+        Write write = () -> replaceFile(file, contents);
+        Iterator<Job> iterator = pending.iterator();
+        while(iterator.hasNext()) {
+            Job waiting = iterator.next();
+            if(file.equals(waiting.file)) {
+                //Move the newest contents to the back of the queue, so they are written after anything they depend on
+                iterator.remove();
+                Job job = new Job(file, write, waiting.submittedAt);
+                job.callbacks.addAll(waiting.callbacks);
+                pending.addLast(job);
+                queued++;
+                coalesced++;
+                return;
+            }
+        }
+        enqueue(new Job(file, write, System.nanoTime()));
+    }
+
+    /**
+     * Run a write on the writer thread, after everything submitted before it
+     * @param write write to run
+     */
+    public synchronized void submit(Write write) {
+        if(isAccepting(null)) {
+            enqueue(new Job(null, write, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Run a callback on the FX thread once everything submitted so far has been written
+     * @param onWritten callback to run
+     */
+    public void whenWritten(Runnable onWritten) {
+        whenWritten(onWritten, null);
+    }
+
+    /**
+     * Run a callback on the FX thread once everything submitted so far has been written, or another if a write fails
+     * @param onWritten callback to run if the writes succeed
+     * @param onFailed callback to run if one of the writes fails, or null
+     */
+    public synchronized void whenWritten(Runnable onWritten, Runnable onFailed) {
+        Callback callback = new Callback(onWritten, onFailed);
+        if(!pending.isEmpty()) {
+            pending.peekLast().callbacks.add(callback);
+        } else if(running != null) {
+            running.callbacks.add(callback);
+        } else {
+            Platform.runLater(onWritten);
+        }
+    }
+
+    /**
+     * Finish the pending writes, including any they queue in turn, and stop the writer thread
+     */
+    public void shutdown() {
+        synchronized(this) {
+            closed = true;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT);
+            try {
+                while(!pending.isEmpty() || running != null) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if(remaining <= 0) {
+                        logger.error("Timed out waiting for scores to be written");
+                        break;
+                    }
+                    wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Check whether a new write can be accepted, logging it if not
+     * @param file file being written, or null
+     * @return true if the write can be queued
+     */
+    private boolean isAccepting(Path file) {
+        if(executor.isShutdown() || (closed && Thread.currentThread() != writerThread)) {
+            logger.error("Score writer has been shut down, dropping write of {}", file == null ? "scores" : file);
+            return false;
+        }
+        return true;
+    }
+
+    private void enqueue(Job job) {
+        pending.addLast(job);
+        queued++;
+        executor.execute(this::runNext);
+    }
+
+    /**
+     * Run the oldest pending write on the writer thread
+     */
+    private void runNext() {
+        Job job;
+        long queuedBefore;
+        synchronized(this) {
+            job = pending.pollFirst();
+            running = job;
+            queuedBefore = queued;
+        }
+        if(job == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            job.write.run();
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            logger.error("Unable to write {}: {}", job.file == null ? "scores" : job.file, e.getMessage());
+        }
+        long end = System.nanoTime();
+
+        List<Runnable> callbacks = new ArrayList<>();
+        synchronized(this) {
+            running = null;
+            if(failed) {
+                failures++;
+                for(Callback callback : job.callbacks) {
+                    if(callback.onFailed() != null) {
+                        callbacks.add(callback.onFailed());
+                    }
+                }
+            } else {
+                writes++;
+                lastLatency = end - job.submittedAt;
+                maxLatency = Math.max(maxLatency, lastLatency);
+                if(queued != queuedBefore && !pending.isEmpty()) {
+                    //The write queued more writes, so wait for those too
+                    pending.peekLast().callbacks.addAll(job.callbacks);
+                } else {
+                    for(Callback callback : job.callbacks) {
+                        callbacks.add(callback.onWritten());
+                    }
+                }
+            }
+            notifyAll();
+        }
+        if(!failed) {
+            logger.debug("Wrote {} in {}ms, {}ms after it was requested", job.file == null ? "scores" : job.file,
+                    (end - start) / 1000000.0, (end - job.submittedAt) / 1000000.0);
+        }
+        for(Runnable callback : callbacks) {
+            Platform.runLater(callback);
+        }
+    }
+
+    /**
+     * Write new contents to a temporary file, force it to disk and rename it over the target
+     * @param file file to replace
+     * @param contents new contents
+     * @throws IOException if the file can't be written
+     */
+    private static void replaceFile(Path file, byte[] contents) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(contents);
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(file.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Force a directory to disk so a rename in it survives a crash, where the platform allows it
+     * @param directory directory to force
+     */
+    private static void syncDirectory(Path directory) {
+        if(directory == null) {
+            return;
+        }
+        try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            //Directories can't be opened on every platform
+        }
+    }
+
+    /**
+     * Get the number of writes completed
+     * @return writes
+     */
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Get the number of file replacements which were coalesced into a later one
+     * @return coalesced replacements
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Get the number of writes which failed
+     * @return failures
+     */
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Get the time from requesting the last write to it being on disk
+     * @return latency in milliseconds
+     */
+    public synchronized double getLastLatency() {
+        return lastLatency / 1000000.0;
+    }
+
+    /**
+     * Get the longest time from requesting a write to it being on disk
+     * @return latency in milliseconds
+     */
+    public synchronized double getMaxLatency() {
+        return maxLatency / 1000000.0;
+    }
+}
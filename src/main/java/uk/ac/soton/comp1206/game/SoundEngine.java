@@ -0,0 +1,172 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.scene.media.AudioClip;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * SoundEngine class to play short sound effects with low latency
+ *
+ * Effects are loaded once as AudioClips, which are decoded into memory, rather than creating a new MediaPlayer for
+ * every sound. An AudioClip can only report and stop all of its playing instances together, so the engine can't steal
+ * a single voice. Instead it caps the number of different effects playing at once: a new effect is dropped while the
+ * cap is reached, and an effect which is already playing can always be layered over itself. Each effect is also rate
+ * limited, so the same sound triggered many times in quick succession is only played once.
+ *
+ * The engine is driven from the single audio thread of an AudioDispatcher.
+ */
+public class SoundEngine implements AudioSink {
+
+    private static final Logger logger = LogManager.getLogger(SoundEngine.class);
+
+    /**
+     * Default number of different effects which can play at once
+     */
+    public static final int DEFAULT_MAX_CLIPS = 6;
+
+    /**
+     * Shortest time between two plays of the same effect, in milliseconds
+     */
+    private static final long MIN_INTERVAL_MILLIS = 40;
+
+    /**
+     * Number of sounds played between logging the statistics
+     */
+    private static final int LOG_INTERVAL = 50;
+
+    /**
+     * Maximum number of different effects playing at once
+     */
+    private final int maxClips;
+
+    /**
+     * Effects which may still be playing, by path
+     */
+    private final HashMap<String, AudioClip> playing = new HashMap<>();
+
+    /**
+     * Time each effect was last played, by path
+     */
+    private final HashMap<String, Long> lastPlayed = new HashMap<>();
+
+    //Statistics, written by the audio thread only
+    private volatile long played = 0;
+    private volatile long limited = 0;
+    private volatile long dropped = 0;
+    private volatile long totalLatency = 0;
+
+    /**
+     * Create a new sound engine
+     * @param maxClips number of different effects which can play at once
+     */
+    public SoundEngine(int maxClips) {
+        this.maxClips = maxClips;
+    }
+
+    /**
+     * Play a sound effect
+     * @param file location of sound
+     */
+    public void play(String file) {
+        play(file, System.nanoTime());
+    }
+
+    /**
+     * Play a sound effect which was triggered at a given time, to measure the latency
+     * @param file location of sound
+     * @param triggeredAt time the sound was triggered, from System.nanoTime
+     */
+    @Override
+    public void play(String file, long triggeredAt) {
+        long now = System.nanoTime();
+        Long last = lastPlayed.get(file);
+        if(last != null && now - last < MIN_INTERVAL_MILLIS * 1000000) {
+            limited++;
+            return;
+        }
+
+        AudioClip clip;
+        try {
+            clip = ResourceLoader.loadClip(file);
+        } catch (RuntimeException e) {
+            logger.error("Unable to play {}: {}", file, e.getMessage());
+            return;
+        }
+
+        if(!hasRoomFor(file)) {
+            dropped++;
+            return;
+        }
+        playing.put(file, clip);
+        clip.play();
+
+        lastPlayed.put(file, now);
+        played++;
+        totalLatency += System.nanoTime() - triggeredAt;
+
+        if(played % LOG_INTERVAL == 0) {
+            logger.info("Sound effects: {} played, {} rate limited, {} dropped at the cap, {}ms average latency", played,
+                    limited, dropped, String.format("%.2f", getAverageLatencyMillis()));
+        }
+    }
+
+    /**
+     * Check whether an effect can be played without going over the cap, forgetting effects which have finished
+     * @param file location of sound
+     * @return true if the effect is already playing or there is room for another
+     */
+    private boolean hasRoomFor(String file) {
+        for(Iterator<AudioClip> iterator = playing.values().iterator(); iterator.hasNext(); ) {
+            if(!iterator.next().isPlaying()) {
+                iterator.remove();
+            }
+        }
+        return playing.containsKey(file) || playing.size() < maxClips;
+    }
+
+    /**
+     * Stop every sound effect
+     */
+    @Override
+    public void stopAll() {
+        for(AudioClip clip : playing.values()) {
+            clip.stop();
+        }
+        playing.clear();
+    }
+
+    /**
+     * Get the number of sounds played
+     * @return sounds played
+     */
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * Get the number of sounds skipped by rate limiting
+     * @return sounds skipped
+     */
+    public long getLimited() {
+        return limited;
+    }
+
+    /**
+     * Get the number of sounds dropped because too many different effects were playing
+     * @return sounds dropped
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Get the average time from a sound being triggered to it being started
+     * @return average latency in milliseconds
+     */
+    public double getAverageLatencyMillis() {
+        return played == 0 ? 0 : totalLatency / 1e6 / played;
+    }
+}
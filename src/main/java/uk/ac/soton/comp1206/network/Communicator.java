@@ -1,11 +1,14 @@
 package uk.ac.soton.comp1206.network;
 
 import com.neovisionaries.ws.client.*;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.event.CommunicationsListener;
 
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +28,16 @@ public class Communicator {
 
     private WebSocket ws = null;
 
+    /**
+     * Interval between pings sent to the server to measure round trip time
+     */
+    private static final long PING_INTERVAL = 5000;
+
+    /**
+     * Message counts, byte totals and timings for this communicator
+     */
+    private final CommunicatorStats stats = new CommunicatorStats();
+
     /**
      * Create a new communicator to the given web socket server
      *
@@ -40,6 +53,10 @@ public class Communicator {
             ws.connect();
             logger.info("Connected to " + server);
 
+            //Send timestamped pings so the pong round trip can be measured
+            ws.setPingPayloadGenerator(stats::pingPayload);
+            ws.setPingInterval(PING_INTERVAL);
+
             //When a message is received, call the receive method
             ws.addListener(new WebSocketAdapter() {
                 @Override
@@ -48,7 +65,11 @@ public class Communicator {
                 }
                 @Override
                 public void onPingFrame(WebSocket webSocket, WebSocketFrame webSocketFrame) throws Exception {
-                    logger.info("Ping? Pong!");
+                    stats.recordPingReceived();
+                }
+                @Override
+                public void onPongFrame(WebSocket webSocket, WebSocketFrame webSocketFrame) throws Exception {
+                    stats.recordPong(webSocketFrame.getPayload());
                 }
             });
 
@@ -80,6 +101,32 @@ public class Communicator {
             error.showAndWait();
             System.exit(1);
         }
+
+        registerStats();
+    }
+
+    /**
+     * Register the statistics with the platform MBean server so they can be viewed over JMX
+     */
+    private void registerStats() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName("uk.ac.soton.comp1206:type=Communicator");
+            if(server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(stats, name);
+        } catch (Exception e) {
+            logger.error("Unable to register communicator statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the message counts and timings for this communicator
+     * @return communicator statistics
+     */
+    public CommunicatorStats getStats() {
+        return stats;
     }
 
     /** Send a message to the server
@@ -89,6 +136,7 @@ public class Communicator {
     public void send(String message) {
         logger.info("Sending message: " + message);
 
+        stats.recordSent(message);
         ws.sendText(message);
     }
 
@@ -115,6 +163,10 @@ public class Communicator {
     private void receive(WebSocket websocket, String message) {
         logger.info("Received: " + message);
 
+        stats.recordReceived(message);
+        long received = System.nanoTime();
+        Platform.runLater(() -> stats.recordFxDispatchLag(System.nanoTime() - received));
+
         for(CommunicationsListener handler : handlers) {
             handler.receiveCommunication(message);
         }
@@ -0,0 +1,293 @@
+package uk.ac.soton.comp1206.network;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records message counts, byte totals and timings for a Communicator.
+ *
+ * Methods are called from the websocket thread and the FX thread, so all state is held in concurrent counters.
+ */
+public class CommunicatorStats implements CommunicatorStatsMXBean {
+
+    /**
+     * Requests which are timed, mapped from the response type to the request type
+     */
+    private static final Map<String, String> TIMED_REQUESTS = Map.of(
+            "PIECE", "PIECE",
+            "HISCORES", "HISCORES",
+            "CHANNELS", "LIST"
+    );
+
+    /**
+     * Running timing for a single kind of request
+     */
+    private static class Timing {
+        private long count;
+        private long totalNanos;
+        private long lastNanos;
+
+        synchronized void record(long nanos) {
+            this.count++;
+            this.totalNanos += nanos;
+            this.lastNanos = nanos;
+        }
+
+        synchronized double lastMillis() {
+            return this.count == 0 ? -1 : this.lastNanos / 1e6;
+        }
+
+        synchronized double averageMillis() {
+            return this.count == 0 ? -1 : (this.totalNanos / (double) this.count) / 1e6;
+        }
+
+        synchronized void reset() {
+            this.count = 0;
+            this.totalNanos = 0;
+            this.lastNanos = 0;
+        }
+    }
+
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder pingsReceived = new LongAdder();
+
+    private final ConcurrentHashMap<String, LongAdder> sentByType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> receivedByType = new ConcurrentHashMap<>();
+
+    /**
+     * Send times of requests waiting on a response, keyed by the request type
+     */
+    private final ConcurrentHashMap<String, ConcurrentLinkedQueue<Long>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Response timings, keyed by the request type
+     */
+    private final ConcurrentHashMap<String, Timing> requestTimings = new ConcurrentHashMap<>();
+
+    private final Timing pingTiming = new Timing();
+
+    /**
+     * Time from sending a predicted score or lives update to the server confirming it
+     */
+    private final Timing actionTiming = new Timing();
+
+    private final AtomicLong fxDispatchLagNanos = new AtomicLong();
+
+    /**
+     * Record a message being sent
+     * @param message message sent
+     */
+    public void recordSent(String message) {
+        String type = messageType(message);
+        this.messagesSent.increment();
+        this.bytesSent.add(utf8Length(message));
+        this.sentByType.computeIfAbsent(type, key -> new LongAdder()).increment();
+        if(TIMED_REQUESTS.containsValue(type)) {
+            this.inFlight.computeIfAbsent(type, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime());
+        }
+    }
+
+    /**
+     * Record a message being received, matching it against any request waiting on it
+     * @param message message received
+     */
+    public void recordReceived(String message) {
+        String type = messageType(message);
+        this.messagesReceived.increment();
+        this.bytesReceived.add(utf8Length(message));
+        this.receivedByType.computeIfAbsent(type, key -> new LongAdder()).increment();
+
+        String request = TIMED_REQUESTS.get(type);
+        if(request != null) {
+            var waiting = this.inFlight.get(request);
+            Long sentAt = waiting == null ? null : waiting.poll();
+            if(sentAt != null) {
+                this.requestTimings.computeIfAbsent(request, key -> new Timing()).record(System.nanoTime() - sentAt);
+            }
+        }
+    }
+
+    /**
+     * Record a ping being received from the server
+     */
+    public void recordPingReceived() {
+        this.pingsReceived.increment();
+    }
+
+    /**
+     * Creates the payload for an outgoing ping, holding the time it was sent
+     * @return ping payload
+     */
+    public byte[] pingPayload() {
+        return ByteBuffer.allocate(Long.BYTES).putLong(System.nanoTime()).array();
+    }
+
+    /**
+     * Record a pong from the server, using the send time held in the echoed payload
+     * @param payload pong payload
+     */
+    public void recordPong(byte[] payload) {
+        if(payload == null || payload.length != Long.BYTES) {
+            return;
+        }
+        long sentAt = ByteBuffer.wrap(payload).getLong();
+        this.pingTiming.record(System.nanoTime() - sentAt);
+    }
+
+    /**
+     * Record the server confirming a predicted action
+     * @param millis time from the action being sent to it being confirmed
+     */
+    public void recordActionConfirmed(long millis) {
+        this.actionTiming.record(millis * 1000000);
+    }
+
+    /**
+     * Record how long a received message waited before the FX thread ran
+     * @param nanos time waited
+     */
+    public void recordFxDispatchLag(long nanos) {
+        this.fxDispatchLagNanos.set(nanos);
+    }
+
+    @Override
+    public long getMessagesSent() {
+        return this.messagesSent.sum();
+    }
+
+    @Override
+    public long getMessagesReceived() {
+        return this.messagesReceived.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return this.bytesSent.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return this.bytesReceived.sum();
+    }
+
+    @Override
+    public Map<String, Long> getSentByType() {
+        return snapshot(this.sentByType);
+    }
+
+    @Override
+    public Map<String, Long> getReceivedByType() {
+        return snapshot(this.receivedByType);
+    }
+
+    @Override
+    public Map<String, Double> getLastRequestMillis() {
+        TreeMap<String, Double> result = new TreeMap<>();
+        this.requestTimings.forEach((type, timing) -> result.put(type, timing.lastMillis()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getAverageRequestMillis() {
+        TreeMap<String, Double> result = new TreeMap<>();
+        this.requestTimings.forEach((type, timing) -> result.put(type, timing.averageMillis()));
+        return result;
+    }
+
+    @Override
+    public int getRequestsInFlight() {
+        int total = 0;
+        for(var waiting : this.inFlight.values()) {
+            total += waiting.size();
+        }
+        return total;
+    }
+
+    @Override
+    public double getPingRoundTripMillis() {
+        return this.pingTiming.lastMillis();
+    }
+
+    @Override
+    public double getAveragePingRoundTripMillis() {
+        return this.pingTiming.averageMillis();
+    }
+
+    @Override
+    public double getActionConfirmMillis() {
+        return this.actionTiming.lastMillis();
+    }
+
+    @Override
+    public double getAverageActionConfirmMillis() {
+        return this.actionTiming.averageMillis();
+    }
+
+    @Override
+    public long getPingsReceived() {
+        return this.pingsReceived.sum();
+    }
+
+    @Override
+    public double getFxDispatchLagMillis() {
+        return this.fxDispatchLagNanos.get() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        this.messagesSent.reset();
+        this.messagesReceived.reset();
+        this.bytesSent.reset();
+        this.bytesReceived.reset();
+        this.pingsReceived.reset();
+        this.sentByType.clear();
+        this.receivedByType.clear();
+        this.inFlight.clear();
+        this.requestTimings.clear();
+        this.pingTiming.reset();
+        this.actionTiming.reset();
+        this.fxDispatchLagNanos.set(0);
+    }
+
+    /**
+     * Gets the type of a message, which is the first word
+     * @param message message
+     * @return message type
+     */
+    private static String messageType(String message) {
+        int end = 0;
+        while(end < message.length() && message.charAt(end) != ' ' && message.charAt(end) != '\n') {
+            end++;
+        }
+        return message.substring(0, end);
+    }
+
+    /**
+     * Counts the UTF-8 encoded length of a message
+     * @param message message
+     * @return length in bytes
+     */
+    private static int utf8Length(String message) {
+        return message.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Copies a map of counters into a sorted map of values
+     * @param counters counters to copy
+     * @return sorted snapshot
+     */
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        TreeMap<String, Long> result = new TreeMap<>();
+        counters.forEach((type, count) -> result.put(type, count.sum()));
+        return result;
+    }
+}
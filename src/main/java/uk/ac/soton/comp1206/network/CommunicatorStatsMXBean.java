@@ -0,0 +1,104 @@
+package uk.ac.soton.comp1206.network;
+
+import java.util.Map;
+
+/**
+ * Management interface for the Communicator statistics, exposed over JMX
+ */
+public interface CommunicatorStatsMXBean {
+
+    /**
+     * Total number of messages sent to the server
+     * @return messages sent
+     */
+    long getMessagesSent();
+
+    /**
+     * Total number of messages received from the server
+     * @return messages received
+     */
+    long getMessagesReceived();
+
+    /**
+     * Total UTF-8 bytes sent to the server
+     * @return bytes sent
+     */
+    long getBytesSent();
+
+    /**
+     * Total UTF-8 bytes received from the server
+     * @return bytes received
+     */
+    long getBytesReceived();
+
+    /**
+     * Messages sent, by message type
+     * @return map of message type to count
+     */
+    Map<String, Long> getSentByType();
+
+    /**
+     * Messages received, by message type
+     * @return map of message type to count
+     */
+    Map<String, Long> getReceivedByType();
+
+    /**
+     * Time taken for the last response to each timed request
+     * @return map of request type to milliseconds
+     */
+    Map<String, Double> getLastRequestMillis();
+
+    /**
+     * Average time taken for responses to each timed request
+     * @return map of request type to milliseconds
+     */
+    Map<String, Double> getAverageRequestMillis();
+
+    /**
+     * Number of timed requests still waiting on a response
+     * @return requests in flight
+     */
+    int getRequestsInFlight();
+
+    /**
+     * Last websocket ping to pong round trip time
+     * @return milliseconds, or -1 if no pong has been received
+     */
+    double getPingRoundTripMillis();
+
+    /**
+     * Average websocket ping to pong round trip time
+     * @return milliseconds, or -1 if no pong has been received
+     */
+    double getAveragePingRoundTripMillis();
+
+    /**
+     * Last time from sending a predicted score or lives update to the server confirming it
+     * @return milliseconds, or -1 if nothing has been confirmed
+     */
+    double getActionConfirmMillis();
+
+    /**
+     * Average time from sending a predicted score or lives update to the server confirming it
+     * @return milliseconds, or -1 if nothing has been confirmed
+     */
+    double getAverageActionConfirmMillis();
+
+    /**
+     * Number of pings received from the server
+     * @return pings received
+     */
+    long getPingsReceived();
+
+    /**
+     * Last time between a message arriving and the FX thread being free to handle it
+     * @return milliseconds
+     */
+    double getFxDispatchLagMillis();
+
+    /**
+     * Reset all counters
+     */
+    void reset();
+}
@@ -1,7 +1,6 @@
 package uk.ac.soton.comp1206.scene;
 
 import javafx.scene.Scene;
-import javafx.scene.paint.Color;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
@@ -34,17 +33,44 @@ public abstract class BaseScene {
     public abstract void build();
 
     /**
-     * Create a new JavaFX scene using the root contained within this scene
+     * Show the root contained within this scene in the game window's single JavaFX scene
      * @return JavaFX scene
      */
     public Scene setScene() {
-        var previous = gameWindow.getScene();
-        Scene scene = new Scene(root, previous.getWidth(), previous.getHeight(), Color.BLACK);
-        scene.getStylesheets().add(getClass().getResource("/style/game.css").toExternalForm());
+        Scene scene = gameWindow.getScene();
+        scene.setRoot(root);
         this.scene = scene;
         return scene;
     }
 
+    /**
+     * Whether this scene can be kept and shown again, rather than built from scratch each time
+     * @return true if the scene can be cached
+     */
+    public boolean isReusable() {
+        return false;
+    }
+
+    /**
+     * Whether the layout of this scene has already been built
+     * @return true if built
+     */
+    public boolean isBuilt() {
+        return this.root != null;
+    }
+
+    /**
+     * Reset a cached scene before it is shown again. Called instead of build.
+     */
+    public void reset() {
+    }
+
+    /**
+     * Called when this scene is replaced by another, to pause anything it has running
+     */
+    public void hide() {
+    }
+
     /**
      * Get the JavaFX scene contained inside
      * @return JavaFX scene
@@ -1,5 +1,7 @@
 package uk.ac.soton.comp1206.scene;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -18,12 +20,10 @@ import uk.ac.soton.comp1206.event.NextPieceListener;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.game.GamePiece;
 import uk.ac.soton.comp1206.game.Multimedia;
+import uk.ac.soton.comp1206.game.HighScoreService;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
 import java.util.Set;
 
 /**
@@ -45,7 +45,7 @@ public class ChallengeScene extends BaseScene {
     protected Label multiplier = new Label();
 
     //Game boards
-    protected GameBoard board;
+    protected CanvasGameBoard board;
     protected PieceBoard pieceBoard;
     protected PieceBoard followingPieceBoard;
 
@@ -97,7 +97,7 @@ public class ChallengeScene extends BaseScene {
         challengePane.getChildren().add(mainPane);
 
         //Game board
-        this.board = new GameBoard(game.getGrid(),gameWindow.getWidth()/2,gameWindow.getWidth()/2);
+        this.board = new CanvasGameBoard(game.getGrid(),gameWindow.getWidth()/2,gameWindow.getWidth()/2);
         board.setOnRightClicked(this::rightMouseClick);
         //Next piece board
         pieceBoard = new PieceBoard((gameWindow.getWidth() / 10) * 2, (gameWindow.getWidth() / 10) * 2);
@@ -112,7 +112,8 @@ public class ChallengeScene extends BaseScene {
         //Current High Score
         var highScoreText = new Text("Highscore: ");
         highScoreText.getStyleClass().add("hiscore");
-        this.highScore = new Text(String.valueOf(this.getHighScore()));
+        this.highScore = new Text();
+        this.highScore.textProperty().bind(highScoreBinding());
         this.highScore.getStyleClass().add("hiscore");
 
         var highscorePane = new HBox();
@@ -205,11 +206,11 @@ public class ChallengeScene extends BaseScene {
         board.setOnBlockClick(this::blockClicked);
         board.setOnBlockHovered(new BlockHoveredListener() {
             @Override
-            public void blockHovered(GameBlock gameBlock) {
+            public void blockHovered(BoardBlock gameBlock) {
                 board.setAim(gameBlock.getX(), gameBlock.getY());
             }
             @Override
-            public void blockUnHovered(GameBlock gameBlock) {
+            public void blockUnHovered(BoardBlock gameBlock) {
                 gameBlock.setUnselected();
             }
         });
@@ -245,11 +246,7 @@ public class ChallengeScene extends BaseScene {
      * Returns to menu
      */
     protected void backToMenu() {
-        Multimedia.stopPlayingBackgroundMusic();
-        this.game.stopGame();
-        this.board = null;
-        pieceBoard = null;
-        followingPieceBoard = null;
+        this.leaveGame();
         this.gameWindow.startMenu();
     }
 
@@ -257,41 +254,31 @@ public class ChallengeScene extends BaseScene {
      * Goes to scores scene
      */
     private void toScores() {
+        this.leaveGame();
+        this.gameWindow.startScores(this.game);
+    }
+
+    /**
+     * Stops the game and music and releases the boards before leaving the scene
+     */
+    protected void leaveGame() {
         Multimedia.stopPlayingBackgroundMusic();
         this.game.stopGame();
+        this.timerBar.stop();
         this.board = null;
         pieceBoard = null;
         followingPieceBoard = null;
-        this.gameWindow.startScores(this.game);
     }
 
     /**
-     * Calculates the current high score
-     * @return
+     * The high score shown, which is the best saved score or the current score if greater. Both are held in memory, so
+     * this never reads the scores file during play.
+     * @return high score text binding
      */
-    private int getHighScore() {
-        //Checks if file exists, otherwise uses current score if greater than the highest default score
-        File scoresFile = new File("scores.tetrecs");
-        if(!scoresFile.exists()) {
-            if(this.game.getScore() > 10000) {
-                return this.game.getScore();
-            } else {
-                return 10000;
-            }
-        }
-        //Otherwise gets the highest score from the scores file
-        int score = this.game.getScore();
-        try {
-            Scanner scanner = new Scanner(scoresFile);
-            String line = scanner.nextLine();
-            if(line != null) {
-                String[] scoreString = line.split(":");
-                score = Integer.valueOf(scoreString[1]) > score ? Integer.valueOf(scoreString[1]) : score;
-            }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
-        return score;
+    private StringBinding highScoreBinding() {
+        var highScores = HighScoreService.getInstance().highScoreProperty();
+        return Bindings.createStringBinding(() -> String.valueOf(Math.max(highScores.get(), this.game.getScore())),
+                highScores, this.game.scoreProperty());
     }
 
     /**
@@ -332,7 +319,7 @@ public class ChallengeScene extends BaseScene {
      * Handle when a block is clicked
      * @param gameBlock the Game Block that was clicked
      */
-    private void blockClicked(GameBlock gameBlock) {
+    private void blockClicked(BoardBlock gameBlock) {
         game.blockClicked(gameBlock);
     }
 
@@ -343,8 +330,6 @@ public class ChallengeScene extends BaseScene {
     private void lineCleared(Set<GameBlockCoordinate> gameBlockCoordinates) {
         //Fades out blocks
         this.board.fadeOut(gameBlockCoordinates);
-        //Rechecks high score
-        this.highScore.setText(String.valueOf(this.getHighScore()));
     }
 
     /**
@@ -39,6 +39,11 @@ public class InstructionsScene extends BaseScene {
         this.getScene().setOnKeyPressed(this::escPressed);
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     @Override
     public void build() {
         this.root = new GamePane(gameWindow.getWidth(), gameWindow.getHeight());
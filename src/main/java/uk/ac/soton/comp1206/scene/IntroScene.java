@@ -0,0 +1,61 @@
+package uk.ac.soton.comp1206.scene;
+
+import javafx.animation.FadeTransition;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.Multimedia;
+import uk.ac.soton.comp1206.game.ResourceLoader;
+import uk.ac.soton.comp1206.game.ScoreHistory;
+import uk.ac.soton.comp1206.ui.GamePane;
+import uk.ac.soton.comp1206.ui.GameWindow;
+
+/**
+ * IntroScene class extends from BaseScene class
+ * Splash screen shown while the game's resources are loaded in the background, which moves on to the menu once
+ * everything has loaded
+ */
+public class IntroScene extends BaseScene {
+    private static final Logger logger = LogManager.getLogger(IntroScene.class);
+
+    /**
+     * Create a new intro scene
+     * @param gameWindow current game window
+     */
+    public IntroScene(GameWindow gameWindow) {
+        super(gameWindow);
+        logger.info("Creating Intro Scene");
+    }
+
+    @Override
+    public void initialise() {
+        logger.info("Initialising Intro Scene");
+        ResourceLoader.preload(gameWindow::startMenu);
+        //Catch up the local scores from the history in the background, rather than on the scores screen
+        ScoreHistory.openLocal();
+    }
+
+    @Override
+    public void build() {
+        this.root = new GamePane(gameWindow.getWidth(), gameWindow.getHeight());
+
+        var introPane = new StackPane();
+        introPane.setMaxWidth(gameWindow.getWidth());
+        introPane.setMaxHeight(gameWindow.getHeight());
+        introPane.getStyleClass().add("intro");
+        this.root.getChildren().add(introPane);
+
+        //Logo, the only image loaded before the background loader starts
+        ImageView logo = new ImageView(Multimedia.loadImage("/images/ECSGames.png"));
+        logo.setPreserveRatio(true);
+        logo.setFitWidth(gameWindow.getWidth() / 3);
+        introPane.getChildren().add(logo);
+
+        FadeTransition fade = new FadeTransition(Duration.millis(1000), logo);
+        fade.setFromValue(0);
+        fade.setToValue(1);
+        fade.play();
+    }
+}
@@ -2,6 +2,7 @@ package uk.ac.soton.comp1206.scene;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleSetProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -10,7 +11,6 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -20,16 +20,15 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.ChatBox;
 import uk.ac.soton.comp1206.game.Channel;
+import uk.ac.soton.comp1206.game.ChatMessage;
 import uk.ac.soton.comp1206.game.Multimedia;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.*;
 
 /**
  * LobbyScene class extends BaseScene class
@@ -62,16 +61,54 @@ public class LobbyScene extends BaseScene {
 
     private VBox currentChannelBox;
     private HBox channelPlayersBox;
-    private VBox currentMessagesBox;
+    private ChatBox chatBox;
     private Button startBtn;
     private TextField messageEntry;
     private Text channelNameText;
 
+    /**
+     * Maximum number of chat messages kept in the lobby
+     */
+    private static final int CHAT_HISTORY = 500;
+
+    /**
+     * Information message shown at the top of the chat
+     */
+    private static final ChatMessage NICK_INFO = new ChatMessage(null, "Type /nick <Name> to change current Nick Name");
+
     /**
      * Timer to check current channels available
      */
     private Timer timer;
 
+    /**
+     * Shortest and longest time between channel list requests
+     */
+    private static final long LIST_INTERVAL_MIN = 3000;
+    private static final long LIST_INTERVAL_MAX = 15000;
+
+    /**
+     * Current time between channel list requests, which grows while the list is unchanged. Only changed on the FX
+     * thread, but read by the polling timer thread.
+     */
+    private volatile long listInterval = LIST_INTERVAL_MIN;
+
+    /**
+     * Channel names currently shown, mapped to their text nodes
+     */
+    private final LinkedHashMap<String, Text> channelNodes = new LinkedHashMap<>();
+
+    /**
+     * Listener to pause channel list requests while the window is unfocused
+     */
+    private final ChangeListener<Boolean> focusListener = (observable, wasFocused, focused) -> {
+        if(focused) {
+            startPolling();
+        } else {
+            stopPolling();
+        }
+    };
+
     /**
      * Create a LobbyScene
      * @param gameWindow current game window
@@ -85,19 +122,9 @@ public class LobbyScene extends BaseScene {
 
     @Override
     public void initialise() {
-        this.timer = new Timer();
-        //Check for channels every 3 seconds
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(new Runnable() {
-                    @Override
-                    public void run() {
-                        communicator.send("LIST");
-                    }
-                });
-            }
-        }, 3000, 3000);
+        //Check for channels, backing off while the list is idle and pausing while unfocused
+        this.startPolling();
+        gameWindow.getScene().getWindow().focusedProperty().addListener(this.focusListener);
 
         //Listener to deal with messages received by server
         communicator.addListener(message -> {
@@ -126,8 +153,6 @@ public class LobbyScene extends BaseScene {
             });
         });
 
-        this.communicator.send("LIST");
-
         gameWindow.getScene().setOnKeyPressed(this::onEscPressed);
 
         Multimedia.playBackgroundMusic("/music/menu.mp3");
@@ -221,26 +246,10 @@ public class LobbyScene extends BaseScene {
         messagePane.getStyleClass().add("channel");
 
         //Messages
-        var currentMessagesPane = new ScrollPane();
-        currentMessagesPane.getStyleClass().add("messages");
-        currentMessagesPane.setPrefHeight(messagePane.getHeight()-100);
-        currentMessagesPane.setPrefWidth(messagePane.getWidth());
-
-        this.currentMessagesBox = new VBox();
-        this.currentMessagesBox.setPrefWidth(currentMessagesPane.getPrefWidth());
-        this.currentMessagesBox.setPrefHeight(currentMessagesPane.getPrefHeight());
-        VBox.setVgrow(this.currentMessagesBox, Priority.ALWAYS);
-        this.currentMessagesBox.setSpacing(5);
-        this.currentMessagesBox.getChildren().add(new Text("Type /nick <Name> to change current Nick Name"));
-        var spacer = new HBox();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        spacer.setMinWidth(Region.USE_PREF_SIZE);
-        spacer.setPrefHeight(20);
-        this.currentMessagesBox.getChildren().add(spacer);
-
-        currentMessagesPane.setContent(this.currentMessagesBox);
-
-        messagePane.setCenter(currentMessagesPane);
+        this.chatBox = new ChatBox(CHAT_HISTORY);
+        this.chatBox.addMessage(NICK_INFO);
+
+        messagePane.setCenter(this.chatBox);
 
         var chatBoxBox = new HBox();
         this.messageEntry = new TextField();
@@ -269,20 +278,93 @@ public class LobbyScene extends BaseScene {
     }
 
     /**
-     * Shows channels received from server on screen
+     * Timer task to request the channel list and schedule the next request with the current interval
+     */
+    private class ListTimerTask extends TimerTask {
+        private final Timer owner;
+
+        ListTimerTask(Timer owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void run() {
+            Platform.runLater(() -> communicator.send("LIST"));
+            try {
+                owner.schedule(new ListTimerTask(owner), listInterval);
+            } catch (IllegalStateException e) {
+                //Polling was stopped while this request was being sent
+            }
+        }
+    }
+
+    /**
+     * Request the channel list now and start polling from the shortest interval
+     */
+    private void startPolling() {
+        this.stopPolling();
+        this.listInterval = LIST_INTERVAL_MIN;
+        this.timer = new Timer();
+        this.timer.schedule(new ListTimerTask(this.timer), 0);
+    }
+
+    /**
+     * Stop requesting the channel list
+     */
+    private void stopPolling() {
+        if(this.timer != null) {
+            this.timer.cancel();
+            this.timer = null;
+        }
+    }
+
+    /**
+     * Shows channels received from server on screen. Only channels which have been added or removed since the last
+     * list are changed.
      * @param message message from server
      */
     public void renderChannels(String message) {
-        this.channelBox.getChildren().clear();
-        String channels = message.substring(9);
-        String[] channelListStr = channels.split("\n");
-        logger.info("Channels received and registered!");
-        for(String channel : channelListStr) {
-            Text channelText = new Text(channel);
-            channelText.getStyleClass().add("channelItem");
-            channelText.setOnMouseClicked(this::sendJoinCommand);
-            this.channelBox.getChildren().add(channelText);
+        String channels = message.length() > 9 ? message.substring(9) : "";
+        LinkedHashSet<String> channelList = new LinkedHashSet<>();
+        for(String channel : channels.split("\n")) {
+            if(!channel.isBlank()) {
+                channelList.add(channel);
+            }
+        }
+        boolean changed = false;
+        //Remove channels which have gone
+        for(Iterator<Map.Entry<String, Text>> iterator = this.channelNodes.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Text> channelNode = iterator.next();
+            if(!channelList.contains(channelNode.getKey())) {
+                this.channelBox.getChildren().remove(channelNode.getValue());
+                iterator.remove();
+                changed = true;
+            }
+        }
+        //Add new channels
+        for(String channel : channelList) {
+            if(!this.channelNodes.containsKey(channel)) {
+                this.addChannelText(channel);
+                changed = true;
+            }
         }
+        //Poll quickly while channels are changing, slow down while idle
+        this.listInterval = changed ? LIST_INTERVAL_MIN : Math.min(this.listInterval * 2, LIST_INTERVAL_MAX);
+        if(changed) {
+            logger.info("Channels received and registered!");
+        }
+    }
+
+    /**
+     * Adds a clickable channel name to the channel list
+     * @param channel channel name
+     */
+    private void addChannelText(String channel) {
+        Text channelText = new Text(channel);
+        channelText.getStyleClass().add("channelItem");
+        channelText.setOnMouseClicked(this::sendJoinCommand);
+        this.channelBox.getChildren().add(channelText);
+        this.channelNodes.put(channel, channelText);
     }
 
     /**
@@ -387,13 +469,8 @@ public class LobbyScene extends BaseScene {
         this.currentChannel.joinChannel(channelName);
         this.channelNameText.setText("Channel: " + channelName);
         //Resets messages box
-        this.currentMessagesBox.getChildren().clear();
-        var spacer = new HBox();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        spacer.setMinWidth(Region.USE_PREF_SIZE);
-        spacer.setPrefHeight(20);
-        var nickInfoText = new Text("Type /nick <Name> to change current Nick Name");
-        this.currentMessagesBox.getChildren().addAll(nickInfoText, spacer);
+        this.chatBox.clearMessages();
+        this.chatBox.addMessage(NICK_INFO);
         //Sets channel box visible
         this.currentChannelBox.setVisible(true);
     }
@@ -465,10 +542,7 @@ public class LobbyScene extends BaseScene {
      * @param message
      */
     private void onNewMsg(String message) {
-        String messageSubStr = message.substring(4);
-        String[] playerAndMessage = messageSubStr.split(":");
-        Text messageText = new Text("[" + playerAndMessage[0] + "] " + playerAndMessage[1]);
-        this.currentMessagesBox.getChildren().add(messageText);
+        this.chatBox.addMessage(ChatMessage.parse(message.substring(4)));
     }
 
     /**
@@ -487,9 +561,10 @@ public class LobbyScene extends BaseScene {
         String name = this.newChannelEntry.getText();
         if(name != null) {
             communicator.send("CREATE " + name);
-            var channel = new Text(name);
-            channel.getStyleClass().add("channelItem");
-            this.channelBox.getChildren().add(channel);
+            if(!this.channelNodes.containsKey(name)) {
+                this.addChannelText(name);
+            }
+            this.listInterval = LIST_INTERVAL_MIN;
         }
     }
 
@@ -510,6 +585,7 @@ public class LobbyScene extends BaseScene {
      * Stop channel checking timer
      */
     private void stopTimer() {
-        this.timer.cancel();
+        gameWindow.getScene().getWindow().focusedProperty().removeListener(this.focusListener);
+        this.stopPolling();
     }
 }
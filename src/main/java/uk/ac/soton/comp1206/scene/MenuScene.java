@@ -13,6 +13,7 @@ import javafx.scene.layout.*;
 import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.App;
 import uk.ac.soton.comp1206.game.Multimedia;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
@@ -23,6 +24,11 @@ public class MenuScene extends BaseScene {
 
     private static final Logger logger = LogManager.getLogger(MenuScene.class);
 
+    /**
+     * Logo rotation animation
+     */
+    private RotateTransition rotateTransition;
+
     /**
      * Create a new menu scene
      * @param gameWindow the Game Window this will be displayed in
@@ -63,7 +69,7 @@ public class MenuScene extends BaseScene {
         imgPane.setMaxHeight(gameWindow.getHeight()/2);
 
         //Rotation animation
-        RotateTransition rotateTransition = new RotateTransition();
+        rotateTransition = new RotateTransition();
         rotateTransition.setDuration(Duration.millis(3000));
         rotateTransition.setNode(imgPane);
         rotateTransition.setFromAngle(-5);
@@ -100,13 +106,28 @@ public class MenuScene extends BaseScene {
         rotateTransition.play();
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        rotateTransition.play();
+    }
+
+    @Override
+    public void hide() {
+        rotateTransition.pause();
+    }
+
     /**
      * Handles when escape is pressed
      * @param event given KeyEvent
      */
     private void escPressed(KeyEvent event) {
         if(event.getCode() == KeyCode.ESCAPE) {
-            System.exit(0);
+            App.getInstance().shutdown();
         }
     }
 
@@ -152,7 +173,7 @@ public class MenuScene extends BaseScene {
      * @param event
      */
     private void exit(ActionEvent event) {
-        System.exit(0);
+        App.getInstance().shutdown();
     }
 
 }
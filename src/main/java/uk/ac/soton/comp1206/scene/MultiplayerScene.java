@@ -14,15 +14,18 @@ import javafx.scene.text.Text;
 import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.ac.soton.comp1206.component.GameBoard;
 import uk.ac.soton.comp1206.component.Leaderboard;
+import uk.ac.soton.comp1206.component.MiniBoard;
+import uk.ac.soton.comp1206.game.ChatMessage;
 import uk.ac.soton.comp1206.game.MultiplayerGame;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -49,9 +52,18 @@ public class MultiplayerScene extends ChallengeScene {
     private VBox boardsBox;
 
     /**
-     * EXTENSION: Map to hold player's game boards
+     * Name of the current player
      */
-    private HashMap<String, GameBoard> playerBoards = new HashMap<>();
+    private final String currentPlayer;
+
+    /**
+     * EXTENSION: Map to hold the read-only boards of other players, in the order they are shown
+     */
+    private LinkedHashMap<String, MiniBoard> playerBoards = new LinkedHashMap<>();
+
+    //Size of the other players' boards
+    private static final int OPPONENT_BOARD_SIZE = 5;
+    private static final double OPPONENT_BOARD_WIDTH = 50;
 
     /**
      * Create a new Multi Player challenge scene
@@ -60,9 +72,10 @@ public class MultiplayerScene extends ChallengeScene {
      */
     public MultiplayerScene(GameWindow gameWindow, ArrayList<String> players, String currentPlayer) {
         super(gameWindow);
+        this.currentPlayer = currentPlayer;
         for(String player : players) {
             if(!player.equals(currentPlayer)) {
-                playerBoards.put(player, new GameBoard(5, 5, 50, 50));
+                playerBoards.put(player, MiniBoard.acquire(player, OPPONENT_BOARD_SIZE, OPPONENT_BOARD_SIZE, OPPONENT_BOARD_WIDTH, OPPONENT_BOARD_WIDTH));
             }
         }
         this.communicator = gameWindow.getCommunicator();
@@ -131,14 +144,7 @@ public class MultiplayerScene extends ChallengeScene {
         boardsBox.setAlignment(Pos.CENTER_LEFT);
         boardsBox.setSpacing(10);
         boardsBox.setPadding(new Insets(0, 0, 0, 10));
-        for(String player : this.playerBoards.keySet()) {
-            var playerBoardBox = new VBox();
-            var playerText = new Text(player);
-            playerText.getStyleClass().add("channelItem");
-            playerBoardBox.setSpacing(3);
-            playerBoardBox.getChildren().addAll(this.playerBoards.get(player), playerText);
-            boardsBox.getChildren().add(playerBoardBox);
-        }
+        boardsBox.getChildren().addAll(this.playerBoards.values());
 
         this.mainPane.setLeft(boardsBox);
     }
@@ -147,34 +153,35 @@ public class MultiplayerScene extends ChallengeScene {
     public void setupGame() {
         logger.info("Setting up Multiplayer game");
 
-        this.game = new MultiplayerGame(5,5, this.communicator);
+        this.game = new MultiplayerGame(5,5, this.communicator, this.currentPlayer);
 
         this.game.setScoresListener(this::updateScores);
     }
 
     /**
-     * Handle updating scores
+     * Handle updating scores. Only changed players are given, so existing entries are updated and new players are
+     * added, then the whole update is applied to the leaderboard at once so it only renders once.
      * @param scoresList list of players and respective scores and lives
      */
     private void updateScores(String[] scoresList) {
         logger.info("Updating scores");
-        //Add to leaderboard if nothing in it
-        if(this.leaderBoardList.size() == 0) {
-            for(String playerScoreLine : scoresList) {
-                String[] playerScore = playerScoreLine.split(":");
-                this.leaderBoardList.add(new Pair<>(playerScore[0], new Pair<Integer,Boolean>(Integer.valueOf(playerScore[1]), playerScore[2].equals("DEAD"))));
-            }
-        } else {
-            //Otherwise, just update player's scores
-            for(String playerScoreLine : scoresList) {
-                String[] playerScore = playerScoreLine.split(":");
-                for(int i = 0; i < this.leaderBoardList.size(); i++) {
-                    if(this.leaderBoardList.get(i).getKey().equals(playerScore[0])) {
-                        this.leaderBoardList.set(i, new Pair<>(playerScore[0], new Pair<Integer,Boolean>(Integer.valueOf(playerScore[1]),playerScore[2].equals("DEAD"))));
-                    }
-                }
+        List<Pair<String,Pair<Integer,Boolean>>> updated = new ArrayList<>(this.leaderBoardList);
+        Map<String,Integer> positions = new HashMap<>();
+        for(int i = 0; i < updated.size(); i++) {
+            positions.put(updated.get(i).getKey(), i);
+        }
+        for(String playerScoreLine : scoresList) {
+            String[] playerScore = playerScoreLine.split(":");
+            var entry = new Pair<>(playerScore[0], new Pair<Integer,Boolean>(Integer.valueOf(playerScore[1]), playerScore[2].equals("DEAD")));
+            Integer position = positions.get(playerScore[0]);
+            if(position != null) {
+                updated.set(position, entry);
+            } else {
+                positions.put(playerScore[0], updated.size());
+                updated.add(entry);
             }
         }
+        this.leaderBoardList.setAll(updated);
     }
 
     @Override
@@ -213,9 +220,7 @@ public class MultiplayerScene extends ChallengeScene {
      * @param message message from server
      */
     private void onReceiveMsg(String message) {
-        String messageAndPlayer = message.substring(4);
-        String[] playerAndMessageArr = messageAndPlayer.split(":");
-        this.currentChatMessage.setText("[" + playerAndMessageArr[0] + "] " + playerAndMessageArr[1]);
+        this.currentChatMessage.setText(ChatMessage.parse(message.substring(4)).toString());
     }
 
     /**
@@ -228,22 +233,22 @@ public class MultiplayerScene extends ChallengeScene {
         String[] playerAndBoardDetails = playerAndBoardStr.split(":");
         String player = playerAndBoardDetails[0];
         String boardDetails = playerAndBoardDetails[1];
-        String[] boardDetailsIndividual = boardDetails.split(" ");
         //Only update the board is the player has a game board on the left side pane
-        if(this.playerBoards.containsKey(player)) {
-            GameBoard playerGameBoard = this.playerBoards.get(player);
-            int x = 0;
-            int y = 0;
-            for (String boardDetail : boardDetailsIndividual) {
-                playerGameBoard.setBlock(x, y, Integer.valueOf(boardDetail));
-                if (y == 4 && x < 4) {
-                    y = 0;
-                    x++;
-                } else {
-                    y++;
-                }
+        MiniBoard playerGameBoard = this.playerBoards.get(player);
+        if(playerGameBoard == null) {
+            return;
+        }
+        //Board values are sent column by column, the same order the mini board stores them
+        String[] boardDetailsIndividual = boardDetails.trim().split(" ");
+        byte[] cells = new byte[OPPONENT_BOARD_SIZE * OPPONENT_BOARD_SIZE];
+        for(int i = 0; i < cells.length && i < boardDetailsIndividual.length; i++) {
+            try {
+                cells[i] = Byte.parseByte(boardDetailsIndividual[i]);
+            } catch (NumberFormatException e) {
+                logger.error("Invalid board value from {}: {}", player, boardDetailsIndividual[i]);
             }
         }
+        playerGameBoard.update(cells);
     }
 
     /**
@@ -257,18 +262,21 @@ public class MultiplayerScene extends ChallengeScene {
                 //Updates leaderboard
                 Pair<String,Pair<Integer,Boolean>> oldPair = this.leaderBoardList.get(i);
                 this.leaderBoardList.set(i, new Pair<>(player, new Pair<>(oldPair.getValue().getKey(), true)));
-                this.playerBoards.remove(player);
-                this.boardsBox.getChildren().clear();
-                //Updates player game boards
-                for(String playerBoard : this.playerBoards.keySet()) {
-                    var playerBoardBox = new VBox();
-                    var playerText = new Text(playerBoard);
-                    playerText.getStyleClass().add("channelItem");
-                    playerBoardBox.setSpacing(3);
-                    playerBoardBox.getChildren().addAll(this.playerBoards.get(playerBoard), playerText);
-                    boardsBox.getChildren().add(playerBoardBox);
-                }
             }
         }
+        //Removes only this player's board and returns it to the pool
+        MiniBoard playerBoard = this.playerBoards.remove(player);
+        if(playerBoard != null) {
+            playerBoard.release();
+        }
+    }
+
+    @Override
+    protected void leaveGame() {
+        super.leaveGame();
+        for(MiniBoard playerBoard : this.playerBoards.values()) {
+            playerBoard.release();
+        }
+        this.playerBoards.clear();
     }
 }
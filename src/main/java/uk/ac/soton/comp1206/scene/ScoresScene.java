@@ -22,8 +22,13 @@ import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.component.ScoresList;
 import uk.ac.soton.comp1206.event.CommunicationsListener;
 import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.HighScoreService;
 import uk.ac.soton.comp1206.game.Multimedia;
 import uk.ac.soton.comp1206.game.MultiplayerGame;
+import uk.ac.soton.comp1206.game.OnlineScoreCache;
+import uk.ac.soton.comp1206.game.ScoreHistory;
+import uk.ac.soton.comp1206.game.ScoreStore;
+import uk.ac.soton.comp1206.game.ScoreWriter;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
@@ -63,11 +68,26 @@ public class ScoresScene extends BaseScene {
      */
     private SimpleListProperty<Pair<String,Integer>> localScores = new SimpleListProperty<Pair<String,Integer>>();
 
+    /**
+     * Cached online scores
+     */
+    private final OnlineScoreCache onlineScores = OnlineScoreCache.getInstance();
+
+    /**
+     * Whether the player's score has been sent to the server
+     */
+    private boolean onlineScoreSent = false;
+
     /**
      * Remote scores list property
      */
     private SimpleListProperty<Pair<String,Integer>> remoteScores = new SimpleListProperty<Pair<String,Integer>>();
 
+    /**
+     * Message shown if the scores could not be saved
+     */
+    private Text saveStatus;
+
     /**
      * Timer to go back to menu
      */
@@ -106,35 +126,30 @@ public class ScoresScene extends BaseScene {
         } else {
             //Otherwise, show the game scores in the local scores place
             MultiplayerGame multiGame = (MultiplayerGame) this.game;
+            List<Pair<String,Integer>> gameScores = new ArrayList<>();
             for(String key : multiGame.getPlayerScores().keySet()) {
-                this.localScores.add(new Pair<>(key, multiGame.getPlayerScores().get(key)));
+                gameScores.add(new Pair<>(key, multiGame.getPlayerScores().get(key)));
             }
+            this.localScores.setAll(gameScores);
         }
-        this.loadOnlineScores();
-        this.communicator.addListener(new CommunicationsListener() {
-            @Override
-            public void receiveCommunication(String communication) {
-                Platform.runLater(() -> {
-                    //Handle high scores received from server
-                    String[] linesSplit = communication.split("\n");
-                    String[] firstLineSplit = linesSplit[0].split(" ");
-                    if(firstLineSplit[0].equals("HISCORES")) {
-                        if(firstLineSplit[1].length() > 0) {
-                            String[] scoresPairStr = firstLineSplit[1].split(":");
-                            remoteScores.add(new Pair<String,Integer>(scoresPairStr[0], Integer.valueOf(scoresPairStr[1])));
-                            for(int i = 1; i < linesSplit.length; i++) {
-                                String line = linesSplit[i];
-                                if(line != null) {
-                                    String[] scorePairStr = line.split(":");
-                                    remoteScores.add(new Pair<String,Integer>(scorePairStr[0], Integer.valueOf(scorePairStr[1])));
-                                }
-                            }
+        if(this.communicator != null) {
+            this.communicator.addListener(new CommunicationsListener() {
+                @Override
+                public void receiveCommunication(String communication) {
+                    Platform.runLater(() -> {
+                        //Handle high scores received from server
+                        if(onlineScores.receive(communication)) {
+                            showOnlineScores();
                         }
-                        writeOnlineScore();
-                    }
-                });
-            }
-        });
+                    });
+                }
+            });
+        }
+        //Show the cached online scores straight away, then fetch them again if they are stale
+        if(this.onlineScores.hasScores()) {
+            this.showOnlineScores();
+        }
+        this.loadOnlineScores();
         //Back to menu timer after 10 seconds
         this.closeTimer = new Timer();
         this.closeTimer.schedule(new TimerTask() {
@@ -184,11 +199,15 @@ public class ScoresScene extends BaseScene {
         var gameOverText = new Text("Game Over");
         gameOverText.getStyleClass().add("bigtitle");
 
+        //Save failure message, empty unless a write fails
+        this.saveStatus = new Text();
+        this.saveStatus.getStyleClass().add("heading");
+
         var headingBox = new VBox();
         headingBox.setAlignment(Pos.TOP_CENTER);
         headingBox.setSpacing(25);
         headingBox.setMaxWidth(gameWindow.getWidth());
-        headingBox.getChildren().addAll(tetrecsImgView, gameOverText);
+        headingBox.getChildren().addAll(tetrecsImgView, gameOverText, this.saveStatus);
         headingBox.setPadding(new Insets(20, 0, 0, 0));
 
         mainPane.setTop(headingBox);
@@ -196,44 +215,63 @@ public class ScoresScene extends BaseScene {
     }
 
     /**
-     * Writes updated local scores
+     * Records the finished game in the score history, and updates the local scores if it made the leaderboard
      */
     private void writeLocalScore() {
-        boolean inserted = false;
-        for(int i = 0; i < this.localScores.size(); i++) {
-            if(this.game.getScore() > this.localScores.get(i).getValue() && !inserted) {
-                if(currentName == null) {
-                    //Gets name if not already gotten
-                    TextInputDialog nameCapture = new TextInputDialog();
-                    nameCapture.setTitle("Name Capture");
-                    nameCapture.setHeaderText("Congrats!");
-                    int pos = i + 1;
-                    nameCapture.setContentText("You have beat the position " + pos + " score! Please provide us with your name:");
-                    Optional<String> result = nameCapture.showAndWait();
-                    String name = "Player";
-                    if (result.isPresent()) {
-                        name = result.get();
-                    }
-                    this.currentName = name;
-                }
-                //Sets local score at right position
-                this.localScores.set(i, new Pair<String,Integer>(this.currentName, this.game.getScore()));
-                inserted = true;
+        ScoreStore store = localStore();
+        if(store == null) {
+            return;
+        }
+        int position = store.rankOf(this.game.getScore());
+        if(position >= 0 && currentName == null) {
+            //Gets name if not already gotten
+            TextInputDialog nameCapture = new TextInputDialog();
+            nameCapture.setTitle("Name Capture");
+            nameCapture.setHeaderText("Congrats!");
+            int pos = position + 1;
+            nameCapture.setContentText("You have beat the position " + pos + " score! Please provide us with your name:");
+            Optional<String> result = nameCapture.showAndWait();
+            String name = "Player";
+            if (result.isPresent()) {
+                name = result.get();
             }
+            this.currentName = name;
         }
-        //If updated, write scores to file
-        if(inserted){
-            this.writeScores(this.localScores.get());
+        //Appends the game to the history, which inserts it into the local scores at the right position
+        var record = new ScoreHistory.GameRecord(System.currentTimeMillis(), this.game.getSeed(), this.game.getLevel(),
+                this.game.getDuration(), this.game.getScore(), this.currentName == null ? "Player" : this.currentName);
+        ScoreHistory.recordLocal(record, store);
+        if(position >= 0) {
+            this.localScores.setAll(store.getScores());
         }
+        //Only publish the new high score once it has been written to disk, refreshing the scores in case the
+        //history was still being opened and the score was added then
+        int score = this.game.getScore();
+        ScoreWriter.getInstance().whenWritten(() -> {
+            if(position >= 0) {
+                HighScoreService.getInstance().scoreSaved(score);
+                this.localScores.setAll(store.getScores());
+            }
+        }, this::saveFailed);
+    }
+
+    /**
+     * Shows the cached online scores, and submits the player's score if it beats one of them
+     */
+    private void showOnlineScores() {
+        this.remoteScores.setAll(this.onlineScores.getScores());
+        this.writeOnlineScore();
     }
 
     /**
      * Writes online high score, if required
      */
     private void writeOnlineScore() {
-        boolean inserted = false;
+        if(this.onlineScoreSent || this.communicator == null) {
+            return;
+        }
         for(int i = 0; i < this.remoteScores.size(); i++) {
-            if(this.game.getScore() > this.remoteScores.get(i).getValue() && !inserted) {
+            if(this.game.getScore() > this.remoteScores.get(i).getValue()) {
                 logger.info("Online high score beat!");
                 if(this.currentName == null) {
                     //Gets name if not already gotten
@@ -249,95 +287,65 @@ public class ScoresScene extends BaseScene {
                     }
                     this.currentName = name;
                 }
-                //Sends new high score to server
-                this.remoteScores.set(i, new Pair<String,Integer>(this.currentName, this.game.getScore()));
+                //Sends new high score to server, and adds it to the cached scores
                 this.communicator.send("HISCORE " + this.currentName + ":" + this.game.getScore());
-                inserted = true;
+                this.onlineScoreSent = true;
+                this.onlineScores.submitted(this.currentName, this.game.getScore());
+                this.remoteScores.setAll(this.onlineScores.getScores());
+                return;
             }
         }
     }
 
     /**
-     * Writes a list of default generated high scores to a file if it doesn't exist
+     * Tells the player their score could not be saved
      */
-    private void writeDefaultScores() {
-        File scoresFile = new File("scores.tetrecs");
-        try {
-            //Creates file and writes from 10000 to 1000 with name Finley, every 1000
-            scoresFile.createNewFile();
-            try (FileWriter fw = new FileWriter(scoresFile);
-            BufferedWriter bw = new BufferedWriter(fw);
-            PrintWriter pw = new PrintWriter(bw)) {
-                for(int i = 10000;i > 0; i-=1000) {
-                    pw.println("Finley:" + i);
-                }
-            }
+    private void saveFailed() {
+        this.saveStatus.setText("Your score could not be saved");
+    }
 
+    /**
+     * Get the local score store
+     * @return score store, or null if it could not be opened
+     */
+    private ScoreStore localStore() {
+        try {
+            return ScoreStore.local();
         } catch (IOException e) {
-            logger.error("Error writing default scores");
-            e.printStackTrace();
+            logger.error("Unable to open the scores file: {}", e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Loads local scores from file
+     * Loads local scores from the score store
      */
     public void loadScores() {
-        try {
-            File scoresFile = new File("scores.tetrecs");
-            if(!scoresFile.exists()) {
-                //Writes default scores to a file if file doesn't exist
-                this.writeDefaultScores();
-            }
-            //Read scores from file and adds to localScores property
-            Scanner scanner = new Scanner(scoresFile);
-            while(scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if(line != null) {
-                    String[] scorePair = line.split(":");
-                    Pair<String, Integer> pair = new Pair<String, Integer>(scorePair[0], Integer.valueOf(scorePair[1]));
-                    logger.info(line);
-                    this.localScores.add(pair);
-                }
-            }
-            scanner.close();
-        } catch (IOException ex) {
-            logger.info("An error occurred in reading the scores file");
-            ex.printStackTrace();
+        ScoreStore store = localStore();
+        if(store != null) {
+            this.localScores.setAll(store.getScores());
         }
     }
 
     /**
-     * Writes a list of new scores to a file
+     * Writes a list of new scores to the score store
      * @param newScores list of new scores
      */
     public void writeScores(ObservableList<Pair<String,Integer>> newScores) {
-        File scoresFile = new File("scores.tetrecs");
-        try {
-            //Creates file if it does not exist
-            scoresFile.createNewFile();
-        } catch (IOException e) {
-            logger.error("Error opening scores file");
-            e.printStackTrace();
-        }
-        //Writes each line to a file called 'scores.tetrecs'
-        try (FileWriter fw = new FileWriter(scoresFile, false);
-        BufferedWriter bw = new BufferedWriter(fw);
-        PrintWriter pw = new PrintWriter(bw)) {
-            for(Pair<String,Integer> newScore : newScores) {
-                pw.println(newScore.getKey() + ":" + newScore.getValue());
-            }
-        } catch (IOException e) {
-            logger.error("Error writing to scores file");
-            e.printStackTrace();
+        ScoreStore store = localStore();
+        if(store != null) {
+            store.replaceAll(newScores);
+            ScoreWriter.getInstance().whenWritten(HighScoreService.getInstance()::reload, this::saveFailed);
         }
     }
 
     /**
-     * Sends HISCORES command to server
+     * Requests the online scores from the server, unless the cached scores are fresh
      */
     private void loadOnlineScores() {
-        this.communicator.send("HISCORES");
+        if(!this.onlineScores.refresh(this.communicator) && this.onlineScores.isFresh()) {
+            logger.info("Using cached online scores");
+        }
     }
 
     /**
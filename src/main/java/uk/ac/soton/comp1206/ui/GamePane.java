@@ -6,6 +6,7 @@ import javafx.scene.transform.Scale;
 import javafx.scene.transform.Translate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.TileAtlas;
 
 /**
  * The Game Pane is a special pane which will scale anything inside it to the screen and maintain the aspect ratio.
@@ -28,6 +29,14 @@ public class GamePane extends StackPane {
     private double scalar = 1;
     private final boolean autoScale = true;
 
+    //Transforms applied to the pane, updated in place
+    private final Scale scale = new Scale(1, 1, 0, 0);
+    private final Translate translate = new Translate(0, 0);
+
+    //Size the transforms were last worked out for
+    private double lastWidth = -1;
+    private double lastHeight = -1;
+
     /**
      * Create a new scalable GamePane with the given drawing width and height.
      * @param width width
@@ -40,6 +49,7 @@ public class GamePane extends StackPane {
 
         getStyleClass().add("gamepane");
         setAlignment(Pos.TOP_LEFT);
+        getTransforms().setAll(translate, scale);
     }
 
     /**
@@ -48,11 +58,16 @@ public class GamePane extends StackPane {
      */
     protected void setScalar(double scalar) {
         this.scalar = scalar;
+        //Block tiles are rendered to match the scale
+        TileAtlas.setScale(scalar);
     }
 
     /**
      * Use a Graphics Transformation to scale everything inside this pane. Padding is added to the edges to maintain
      * the correct aspect ratio and keep the display centred.
+     *
+     * The scale and translate are created once and updated in place, and only when the size of the pane has changed,
+     * so a layout pass at the same size does not replace the transforms and trigger another layout.
      */
     @Override
     public void layoutChildren() {
@@ -62,9 +77,20 @@ public class GamePane extends StackPane {
             return;
         }
 
+        //Get the parent width and height
+        var parentWidth = getWidth();
+        var parentHeight = getHeight();
+
+        //Nothing to do if the size is unchanged
+        if(parentWidth == lastWidth && parentHeight == lastHeight) {
+            return;
+        }
+        lastWidth = parentWidth;
+        lastHeight = parentHeight;
+
         //Work out the scale factor height and width
-        var scaleFactorHeight = getHeight() / height;
-        var scaleFactorWidth = getWidth() / width;
+        var scaleFactorHeight = parentHeight / height;
+        var scaleFactorWidth = parentWidth / width;
 
         //Work out whether to scale by width or height
         if (scaleFactorHeight > scaleFactorWidth) {
@@ -73,22 +99,15 @@ public class GamePane extends StackPane {
             setScalar(scaleFactorHeight);
         }
 
-        //Set up the scale
-        Scale scale = new Scale(scalar,scalar);
-
-        //Get the parent width and height
-        var parentWidth = getWidth();
-        var parentHeight = getHeight();
-
         //Get the padding needed on the top and left
         var paddingLeft = (parentWidth - (width * scalar)) / 2.0;
         var paddingTop = (parentHeight - (height * scalar)) / 2.0;
 
         //Perform the transformation
-        Translate translate = new Translate(paddingLeft, paddingTop);
-        scale.setPivotX(0);
-        scale.setPivotY(0);
-        getTransforms().setAll(translate, scale);
+        scale.setX(scalar);
+        scale.setY(scalar);
+        translate.setX(paddingLeft);
+        translate.setY(paddingTop);
     }
 
 }
@@ -2,18 +2,24 @@ package uk.ac.soton.comp1206.ui;
 
 import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.App;
+import uk.ac.soton.comp1206.component.NetworkStatsOverlay;
+import uk.ac.soton.comp1206.component.PerformanceHud;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.scene.*;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Function;
 
 /**
  * The GameWindow is the single window for the game where everything takes place. To move between screens in the game,
@@ -32,10 +38,34 @@ public class GameWindow {
     private final Stage stage;
 
     private BaseScene currentScene;
+
+    /**
+     * The single JavaFX scene, whose root is swapped for each game scene
+     */
     private Scene scene;
 
+    /**
+     * Scenes which are kept and shown again rather than rebuilt, by type
+     */
+    private final HashMap<Class<? extends BaseScene>, BaseScene> cachedScenes = new HashMap<>();
+
     Communicator communicator;
 
+    /**
+     * Whether the menu has been shown yet, to log the time taken to reach it
+     */
+    private boolean menuShown = false;
+
+    /**
+     * Network statistics overlay, toggled with F3
+     */
+    private NetworkStatsOverlay networkOverlay;
+
+    /**
+     * Frame time and pulse overlay, toggled with F4 and exported with F5
+     */
+    private PerformanceHud performanceHud;
+
     /**
      * Create a new GameWindow attached to the given stage with the specified width and height
      * @param stage stage
@@ -51,36 +81,29 @@ public class GameWindow {
         //Setup window
         setupStage();
 
-        //Setup resources
-        setupResources();
-
         //Setup default scene
         setupDefaultScene();
 
         //Communicator for multiplayer, add endpoint if required!
         //communicator = new Communicator("");
 
-        //Go to menu
-        startMenu();
+        //Show the intro while resources load, then go to menu
+        startIntro();
     }
 
     /**
-     * Setup the font and any other resources we need
+     * Display the intro, which loads the fonts, images and sounds in the background and then shows the menu. Fonts are
+     * loaded by the ResourceLoader rather than the CSS due to the Font loader bug with spaces in URLs.
      */
-    private void setupResources() {
-        logger.info("Loading resources");
-
-        //We need to load fonts here due to the Font loader bug with spaces in URLs in the CSS files
-        Font.loadFont(getClass().getResourceAsStream("/style/Orbitron-Regular.ttf"),32);
-        Font.loadFont(getClass().getResourceAsStream("/style/Orbitron-Bold.ttf"),32);
-        Font.loadFont(getClass().getResourceAsStream("/style/Orbitron-ExtraBold.ttf"),32);
+    public void startIntro() {
+        loadScene(new IntroScene(this));
     }
 
     /**
      * Display the main menu
      */
     public void startMenu() {
-        loadScene(new MenuScene(this));
+        loadScene(cachedScene(MenuScene.class, MenuScene::new));
     }
 
     /**
@@ -92,7 +115,7 @@ public class GameWindow {
      * Display the instructions
      */
     public void startInstructions() {
-        loadScene(new InstructionsScene(this));
+        loadScene(cachedScene(InstructionsScene.class, InstructionsScene::new));
     }
 
     /**
@@ -130,28 +153,118 @@ public class GameWindow {
     }
 
     /**
-     * Load a given scene which extends BaseScene and switch over.
+     * Get a cached scene of the given type, creating it the first time
+     * @param type type of scene
+     * @param factory creates the scene if it is not cached
+     * @return cached scene
+     */
+    private BaseScene cachedScene(Class<? extends BaseScene> type, Function<GameWindow, BaseScene> factory) {
+        return cachedScenes.computeIfAbsent(type, key -> factory.apply(this));
+    }
+
+    /**
+     * Load a given scene which extends BaseScene and switch over. Cached scenes which are already built are reset
+     * rather than built again. The new scene's root replaces the old one in the single JavaFX scene.
      * @param newScene new scene to load
      */
     public void loadScene(BaseScene newScene) {
+        long started = System.nanoTime();
+
         //Cleanup remains of the previous scene
         cleanup();
 
-        //Create the new scene and set it up
-        newScene.build();
+        //Build the new scene, or reset it if cached, and set it up
+        if(newScene.isReusable() && newScene.isBuilt()) {
+            newScene.reset();
+        } else {
+            newScene.build();
+        }
+        if(newScene.isReusable()) {
+            cachedScenes.putIfAbsent(newScene.getClass(), newScene);
+        }
         currentScene = newScene;
         scene = newScene.setScene();
-        stage.setScene(scene);
+        scene.setOnKeyPressed(null);
+        if(networkOverlay != null) {
+            ((Pane) scene.getRoot()).getChildren().add(networkOverlay);
+        }
+        if(performanceHud != null) {
+            ((Pane) scene.getRoot()).getChildren().add(performanceHud);
+            performanceHud.attach(scene, newScene.getClass().getSimpleName());
+        }
+        if(stage.getScene() != scene) {
+            stage.setScene(scene);
+        }
 
         //Initialise the scene when ready
-        Platform.runLater(() -> currentScene.initialise());
+        Platform.runLater(() -> {
+            newScene.initialise();
+            logger.info("Loaded {} in {}ms", newScene.getClass().getSimpleName(), (System.nanoTime() - started) / 1000000);
+            if(!menuShown && newScene instanceof MenuScene) {
+                menuShown = true;
+                logger.info("Menu interactive {}ms after startup", (System.nanoTime() - App.getStartTime()) / 1000000);
+            }
+        });
     }
 
     /**
-     * Setup the default scene (an empty black scene) when no scene is loaded
+     * Handle developer keys pressed in any scene
+     * @param event given KeyEvent
+     */
+    private void debugKeys(KeyEvent event) {
+        if(event.getCode() == KeyCode.F3) {
+            toggleNetworkOverlay();
+            event.consume();
+        } else if(event.getCode() == KeyCode.F4) {
+            togglePerformanceHud();
+            event.consume();
+        } else if(event.getCode() == KeyCode.F5 && performanceHud != null) {
+            performanceHud.exportCsv(new File("performance-" + System.currentTimeMillis() + ".csv"));
+            event.consume();
+        }
+    }
+
+    /**
+     * Show or hide the network statistics overlay on the current scene
+     */
+    public void toggleNetworkOverlay() {
+        var root = (Pane) scene.getRoot();
+        if(networkOverlay == null) {
+            networkOverlay = new NetworkStatsOverlay(communicator);
+            root.getChildren().add(networkOverlay);
+            networkOverlay.start();
+        } else {
+            networkOverlay.stop();
+            root.getChildren().remove(networkOverlay);
+            networkOverlay = null;
+        }
+    }
+
+    /**
+     * Show or hide the performance overlay on the current scene
+     */
+    public void togglePerformanceHud() {
+        var root = (Pane) scene.getRoot();
+        if(performanceHud == null) {
+            performanceHud = new PerformanceHud();
+            root.getChildren().add(performanceHud);
+            performanceHud.attach(scene, currentScene.getClass().getSimpleName());
+            performanceHud.start();
+        } else {
+            performanceHud.stop();
+            root.getChildren().remove(performanceHud);
+            performanceHud = null;
+        }
+    }
+
+    /**
+     * Setup the default scene (an empty black scene) when no scene is loaded. This is the single scene used for the
+     * whole game, so the stylesheet is loaded and the developer keys added only once.
      */
     public void setupDefaultScene() {
         this.scene = new Scene(new Pane(),width,height, Color.BLACK);
+        this.scene.getStylesheets().add(getClass().getResource("/style/game.css").toExternalForm());
+        this.scene.addEventFilter(KeyEvent.KEY_PRESSED, this::debugKeys);
         stage.setScene(this.scene);
     }
 
@@ -160,6 +273,9 @@ public class GameWindow {
      */
     public void cleanup() {
         logger.info("Clearing up previous scene");
+        if(currentScene != null) {
+            currentScene.hide();
+        }
         if(communicator != null) {
             communicator.clearListeners();
         }